@@ -0,0 +1,42 @@
+package Bench;
+
+import Service.AuditService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costul unui apel logActiune văzut de apelant, cu un fir și cu mai multe fire concurente.
+ * Nu depinde de scara datelor, deci nu folosește CatalogState.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Daudit.file=bench/data/audit_bench.csv")
+@State(Scope.Benchmark)
+public class AuditBenchmark {
+    private AuditService auditService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        new java.io.File(CatalogState.DATA_DIR).mkdirs();
+        auditService = AuditService.getInstance();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        auditService.flush();
+    }
+
+    @Benchmark
+    public void logActiune() {
+        auditService.logActiune("Benchmark audit", "S1");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logActiuneConcurent() {
+        auditService.logActiune("Benchmark audit", "S1");
+    }
+}
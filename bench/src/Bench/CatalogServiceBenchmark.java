@@ -0,0 +1,36 @@
+package Bench;
+
+import Model.Curs;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verificările din CatalogService executate la fiecare adăugare de curs sau înscriere.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogServiceBenchmark {
+
+    @Benchmark
+    public boolean esteProfesorDisponibil(CatalogState state) {
+        LocalTime start = LocalTime.of(8 + ThreadLocalRandom.current().nextInt(10), 0);
+        return state.catalogService.esteProfesorDisponibil(state.randomProfesor(), start, start.plusHours(2));
+    }
+
+    @Benchmark
+    public boolean areConflictOrarStudent(CatalogState state) {
+        Curs curs = state.randomCurs();
+        return state.catalogService.areConflictOrarStudent(state.randomStudent(), curs);
+    }
+
+    @Benchmark
+    public String genereazaIdDisponibil(CatalogState state) {
+        return state.catalogService.genereazaIdDisponibil("S");
+    }
+}
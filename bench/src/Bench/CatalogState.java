@@ -0,0 +1,102 @@
+package Bench;
+
+import Model.Curs;
+import Model.Profesor;
+import Model.Student;
+import Service.CatalogService;
+import Service.DatabaseConnectionSingleton;
+import Service.DatabaseService;
+import Service.DemoDataGenerator;
+import Service.IdSequenceAllocator;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starea comună a benchmark-urilor: o bază de date H2 încorporată, populată o singură dată
+ * pentru fiecare scară (numărul de studenți) și refolosită între rulări, plus un CatalogService
+ * încărcat din ea. Fiecare scară rulează într-un fork separat, deci singleton-urile aplicației
+ * sunt configurate aici înainte de prima utilizare.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+    static final String DATA_DIR = "bench/data";
+
+    @Param({"1000", "10000", "100000"})
+    public int studenti;
+
+    public DatabaseService dbService;
+    public CatalogService catalogService;
+
+    String[] studentIds;
+    Student[] studentiIncarcati;
+    Profesor[] profesoriIncarcati;
+    Curs[] cursuriIncarcate;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        new File(DATA_DIR).mkdirs();
+        System.setProperty("db.url", "jdbc:h2:./" + DATA_DIR + "/catalog_" + studenti);
+        System.setProperty("db.user", "sa");
+        System.setProperty("db.password", "");
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("audit.file", DATA_DIR + "/audit_bench.csv");
+
+        dbService = DatabaseService.getInstance();
+        if (countStudenti() == 0) {
+            seed();
+        }
+        catalogService = new CatalogService();
+
+        studentiIncarcati = catalogService.getStudenti().toArray(new Student[0]);
+        studentIds = Arrays.stream(studentiIncarcati).map(Student::getId).toArray(String[]::new);
+        profesoriIncarcati = catalogService.getProfesori().values().toArray(new Profesor[0]);
+        cursuriIncarcate = catalogService.getCursuri().toArray(new Curs[0]);
+    }
+
+    String randomStudentId() {
+        return studentIds[ThreadLocalRandom.current().nextInt(studentIds.length)];
+    }
+
+    Student randomStudent() {
+        return studentiIncarcati[ThreadLocalRandom.current().nextInt(studentiIncarcati.length)];
+    }
+
+    Profesor randomProfesor() {
+        return profesoriIncarcati[ThreadLocalRandom.current().nextInt(profesoriIncarcati.length)];
+    }
+
+    Curs randomCurs() {
+        return cursuriIncarcate[ThreadLocalRandom.current().nextInt(cursuriIncarcate.length)];
+    }
+
+    private int countStudenti() {
+        try (Connection conn = DatabaseConnectionSingleton.getInstance().getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM studenti")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error counting students", e);
+        }
+    }
+
+    /**
+     * Populează baza de date prin generatorul de date sintetice, cu un seed fix.
+     * Fiecare student este înscris în medie la 5 cursuri și are câte o notă la fiecare.
+     */
+    private void seed() {
+        DemoDataGenerator generator = new DemoDataGenerator(dbService, new IdSequenceAllocator(Collections::emptyList), 42);
+        generator.genereaza(studenti, Math.max(10, studenti / 100), Math.max(20, studenti / 50), 5, 1);
+    }
+}
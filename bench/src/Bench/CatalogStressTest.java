@@ -0,0 +1,251 @@
+package Bench;
+
+import Model.Curs;
+import Model.Materie;
+import Model.Profesor;
+import Model.Sala;
+import Model.Student;
+import Service.CatalogService;
+import Service.DatabaseService;
+
+import java.io.File;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test de stres pentru înscrieri: mai multe fire înscriu și retrag aceiași studenți la aceleași
+ * cursuri mici, îi pun pe listele de așteptare, fac înscrieri în masă și șterg cursuri și studenți
+ * în timp ce celelalte fire lucrează cu ei. La final, pentru fiecare curs, contorul de locuri,
+ * lista de înscriși din memorie și numărul de rânduri din tabela inscrieri trebuie să coincidă,
+ * fără a depăși capacitatea sălii, iar listele de așteptare din memorie trebuie să fie cele din baza de date
+ * și să nu conțină studenți deja înscriși la curs. Niciun student nu poate ajunge înscris la două cursuri
+ * care se suprapun.
+ *
+ * Rulează pe o bază de date H2 proprie din bench/data, recreată la fiecare rulare:
+ * <pre>
+ * java -cp "bench/out:src:bench/lib/*:lib/*" Bench.CatalogStressTest [fire] [operatii-pe-fir]
+ * </pre>
+ * Codul de ieșire este 1 dacă cel puțin o verificare a eșuat.
+ */
+public class CatalogStressTest {
+    private static final int CURSURI = 8;
+    private static final int CURSURI_STERSE = 2;
+    private static final int STUDENTI = 12;
+    private static final int STUDENTI_STERSI = 4;
+    private static final int CAPACITATE = 4;
+
+    private final CatalogService catalogService;
+    private final DatabaseService dbService;
+    private final List<String> cursIds = new ArrayList<>();
+    private final List<String> studentIds = new ArrayList<>();
+    private final ConcurrentLinkedQueue<String> erori = new ConcurrentLinkedQueue<>();
+
+    private CatalogStressTest(CatalogService catalogService) {
+        this.catalogService = catalogService;
+        this.dbService = catalogService.dbService;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int fire = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int operatii = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+
+        new File(CatalogState.DATA_DIR).mkdirs();
+        for (String sufix : Arrays.asList(".mv.db", ".trace.db")) {
+            new File(CatalogState.DATA_DIR + "/stress" + sufix).delete();
+        }
+        System.setProperty("db.url", "jdbc:h2:./" + CatalogState.DATA_DIR + "/stress");
+        System.setProperty("db.user", "sa");
+        System.setProperty("db.password", "");
+        System.setProperty("db.driver", "org.h2.Driver");
+        System.setProperty("audit.file", CatalogState.DATA_DIR + "/audit_stress.csv");
+
+        CatalogStressTest test = new CatalogStressTest(new CatalogService());
+        test.pregateste();
+        long start = System.nanoTime();
+        test.ruleaza(fire, operatii);
+        long durata = (System.nanoTime() - start) / 1_000_000;
+        List<String> esecuri = test.verifica();
+
+        System.out.println("Stres: " + fire + " fire x " + operatii + " operații în " + durata + " ms");
+        test.erori.forEach(eroare -> System.out.println("Eroare neașteptată: " + eroare));
+        esecuri.forEach(esec -> System.out.println("Verificare eșuată: " + esec));
+        boolean reusit = test.erori.isEmpty() && esecuri.isEmpty();
+        System.out.println(reusit ? "OK" : "EȘUAT");
+        System.exit(reusit ? 0 : 1);
+    }
+
+    /**
+     * Cursuri mici, fiecare cu sala și profesorul lui; fiecare începe la 15 minute după cel dinainte,
+     * deci se suprapune cu următoarele trei.
+     */
+    private void pregateste() {
+        Materie materie = new Materie("Stres", catalogService.rezervaIduri("MST", 1).get(0), 5);
+        catalogService.adaugaMaterie(materie);
+        List<String> iduriCursuri = catalogService.rezervaIduri("CST", CURSURI);
+        for (int i = 0; i < CURSURI; i++) {
+            Sala sala = new Sala("RST" + i, "Sala stres " + i, CAPACITATE, Collections.emptyList());
+            catalogService.adaugaSala(sala);
+            Profesor profesor = new Profesor("Profesor stres " + i, "PST" + i, "Lector");
+            catalogService.adaugaProfesor(profesor);
+            LocalTime inceput = LocalTime.of(8, 0).plusMinutes(15L * i);
+            catalogService.adaugaCurs(new Curs(iduriCursuri.get(i), materie, profesor, sala, inceput, inceput.plusHours(1)));
+            cursIds.add(iduriCursuri.get(i));
+        }
+        for (String id : catalogService.rezervaIduri("SST", STUDENTI)) {
+            catalogService.adaugaStudent(new Student("Student " + id, id, id.toLowerCase() + "@stres.ro", 1));
+            studentIds.add(id);
+        }
+    }
+
+    private void ruleaza(int fire, int operatii) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(fire + 1);
+        List<Future<?>> rezultate = new ArrayList<>();
+        for (int fir = 0; fir < fire; fir++) {
+            Random random = new Random(fir);
+            rezultate.add(executor.submit(() -> {
+                for (int i = 0; i < operatii; i++) {
+                    opereaza(random);
+                }
+            }));
+        }
+        // Ștergerile au loc cât timp celelalte fire lucrează cu aceleași cursuri și aceiași studenți
+        rezultate.add(executor.submit(() -> {
+            for (int i = 0; i < CURSURI_STERSE + STUDENTI_STERSI; i++) {
+                int stergere = i;
+                pauza(20);
+                executa(() -> {
+                    if (stergere < CURSURI_STERSE) {
+                        catalogService.deleteCurs(cursIds.get(stergere));
+                    } else {
+                        catalogService.deleteStudent(studentIds.get(stergere - CURSURI_STERSE));
+                    }
+                });
+            }
+        }));
+        for (Future<?> rezultat : rezultate) {
+            rezultat.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void opereaza(Random random) {
+        String studentId = studentIds.get(random.nextInt(studentIds.size()));
+        String cursId = cursIds.get(random.nextInt(cursIds.size()));
+        int operatie = random.nextInt(20);
+        executa(() -> {
+            if (operatie < 9) {
+                catalogService.inscriereStudentLaMaterie(studentId, cursId);
+            } else if (operatie < 16) {
+                catalogService.dezinscriereStudent(studentId, cursId);
+            } else if (operatie < 19) {
+                catalogService.inscrieInListaAsteptare(studentId, cursId);
+            } else {
+                catalogService.inscriereInMasa(
+                        Arrays.asList(studentId, studentIds.get(random.nextInt(studentIds.size()))),
+                        Arrays.asList(cursId, cursIds.get(random.nextInt(cursIds.size()))));
+            }
+        });
+    }
+
+    /**
+     * Refuzurile de business (curs plin, deja înscris, student șters) sunt așteptate; orice altă excepție este o eroare.
+     */
+    private void executa(Runnable operatie) {
+        try {
+            operatie.run();
+        } catch (IllegalArgumentException e) {
+            // Cerere respinsă
+        } catch (RuntimeException e) {
+            erori.add(e.toString());
+        }
+    }
+
+    private List<String> verifica() {
+        List<String> esecuri = new ArrayList<>();
+        Map<String, Integer> inscrieriDb = dbService.countInscrieriByCurs();
+        Map<String, List<String>> listeDb = dbService.getListeAsteptare();
+        Map<String, List<String>> cursuriStudenti = dbService.getCursIdsByStudenti(new HashSet<>(studentIds));
+
+        for (String cursId : cursIds) {
+            int db = inscrieriDb.getOrDefault(cursId, 0);
+            Optional<Curs> curs = catalogService.getCurs(cursId);
+            if (!curs.isPresent()) {
+                if (db != 0) {
+                    esecuri.add(cursId + " a fost șters, dar are încă " + db + " înscrieri în baza de date");
+                }
+                continue;
+            }
+
+            List<Student> inscrisi = curs.get().getStudentiInscrisi();
+            Set<String> distincti = new HashSet<>();
+            inscrisi.forEach(student -> distincti.add(student.getId()));
+            int ocupate = catalogService.getLocuriOcupate(cursId);
+            if (ocupate != db || inscrisi.size() != db || distincti.size() != db) {
+                esecuri.add(cursId + ": locuri=" + ocupate + ", înscriși în memorie=" + inscrisi.size()
+                        + " (" + distincti.size() + " distincți), în baza de date=" + db);
+            }
+            if (db > CAPACITATE) {
+                esecuri.add(cursId + ": " + db + " înscrieri la o sală de " + CAPACITATE + " locuri");
+            }
+
+            List<String> asteptare = listeDb.getOrDefault(cursId, Collections.emptyList());
+            if (catalogService.getLungimeListaAsteptare(cursId) != asteptare.size()) {
+                esecuri.add(cursId + ": lista de așteptare are " + catalogService.getLungimeListaAsteptare(cursId)
+                        + " studenți în memorie și " + asteptare.size() + " în baza de date");
+            }
+            for (String studentId : asteptare) {
+                if (cursuriStudenti.getOrDefault(studentId, Collections.emptyList()).contains(cursId)) {
+                    esecuri.add(studentId + " este înscris la " + cursId + " și încă pe lista lui de așteptare");
+                }
+            }
+            for (int i = 0; i < asteptare.size(); i++) {
+                if (catalogService.getPozitieListaAsteptare(asteptare.get(i), cursId) != i + 1) {
+                    esecuri.add(cursId + ": " + asteptare.get(i) + " este pe poziția " + (i + 1)
+                            + " în baza de date și pe poziția "
+                            + catalogService.getPozitieListaAsteptare(asteptare.get(i), cursId) + " în memorie");
+                }
+            }
+        }
+        for (String studentId : studentIds) {
+            List<String> inscrieri = cursuriStudenti.getOrDefault(studentId, Collections.emptyList());
+            for (int i = 0; i < inscrieri.size(); i++) {
+                for (int j = i + 1; j < inscrieri.size(); j++) {
+                    Optional<Curs> primul = catalogService.getCurs(inscrieri.get(i));
+                    Optional<Curs> alDoilea = catalogService.getCurs(inscrieri.get(j));
+                    if (primul.isPresent() && alDoilea.isPresent() && seSuprapun(primul.get(), alDoilea.get())) {
+                        esecuri.add(studentId + " este înscris la " + inscrieri.get(i) + " și " + inscrieri.get(j)
+                                + ", care se suprapun");
+                    }
+                }
+            }
+        }
+        return esecuri;
+    }
+
+    private static boolean seSuprapun(Curs primul, Curs alDoilea) {
+        return primul.getOraInceput().isBefore(alDoilea.getOraSfarsit())
+                && alDoilea.getOraInceput().isBefore(primul.getOraSfarsit());
+    }
+
+    private static void pauza(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
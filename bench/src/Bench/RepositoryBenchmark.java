@@ -0,0 +1,43 @@
+package Bench;
+
+import Model.Curs;
+import Model.Nota;
+import Model.Student;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Interogările repository-urilor folosite la încărcarea catalogului și la afișarea foii matricole.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Benchmark
+    public List<Curs> cursFindAll(CatalogState state) {
+        return state.dbService.cursRepository.findAll();
+    }
+
+    @Benchmark
+    public int studentFindAll(CatalogState state) {
+        return state.dbService.studentRepository.findAll().size();
+    }
+
+    @Benchmark
+    public long studentStreamAll(CatalogState state) {
+        try (Stream<Student> studenti = state.dbService.studentRepository.streamAll()) {
+            return studenti.count();
+        }
+    }
+
+    @Benchmark
+    public List<Nota> notaFindByStudentId(CatalogState state) {
+        return state.dbService.notaRepository.findByStudentId(state.randomStudentId());
+    }
+}
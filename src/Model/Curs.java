@@ -7,6 +7,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Supplier;
 
 public class Curs {
     private Materie materie;
@@ -16,6 +17,7 @@ public class Curs {
     private LocalTime oraInceput;
     private LocalTime oraSfarsit;
     private List<Student> studentiInscrisi = new ArrayList<>(); // Relație cu clasa Student
+    private volatile Supplier<List<Student>> incarcatorStudenti; // Încărcare la cerere a studenților înscriși
     // Constructor
     public Curs(String id, Materie materie, Profesor profesor, Sala sala, LocalTime oraInceput, LocalTime oraSfarsit) {
         this.materie = materie;
@@ -26,10 +28,55 @@ public class Curs {
         this.id = id;
     }
 
-    public void inscriereStudent(Student student) {
-        studentiInscrisi.add(student);
+    public synchronized void inscriereStudent(Student student) {
+        getStudentiInscrisi().add(student);
+    }
+
+    /**
+     * Scoate studentul din lista celor înscriși.
+     * @return true dacă studentul era înscris
+     */
+    public synchronized boolean dezinscriereStudent(String studentId) {
+        return getStudentiInscrisi().removeIf(student -> student.getId().equals(studentId));
+    }
+
+    /**
+     * Returnează o copie a cursului cu propria listă de studenți înscriși; materia, profesorul
+     * și sala sunt partajate. Dacă lista nu a fost încă încărcată, copia primește același încărcător.
+     */
+    public synchronized Curs copie() {
+        Curs copie = new Curs(id, materie, profesor, sala, oraInceput, oraSfarsit);
+        if (incarcatorStudenti != null) {
+            copie.incarcatorStudenti = incarcatorStudenti;
+        } else {
+            copie.studentiInscrisi.addAll(studentiInscrisi);
+        }
+        return copie;
+    }
+
+    /**
+     * Returnează studenții înscriși. Dacă a fost setat un încărcător, lista este
+     * încărcată din baza de date la primul apel.
+     */
+    public List<Student> getStudentiInscrisi() {
+        if (incarcatorStudenti != null) {
+            synchronized (this) {
+                if (incarcatorStudenti != null) {
+                    studentiInscrisi.addAll(incarcatorStudenti.get());
+                    incarcatorStudenti = null;
+                }
+            }
+        }
+        return studentiInscrisi;
+    }
+
+    /**
+     * Amână încărcarea studenților înscriși până la primul acces la listă.
+     * @param incarcatorStudenti Funcția care citește studenții înscriși din baza de date
+     */
+    public void setIncarcatorStudenti(Supplier<List<Student>> incarcatorStudenti) {
+        this.incarcatorStudenti = incarcatorStudenti;
     }
-    public List<Student> getStudentiInscrisi() { return studentiInscrisi; }
 
     // Getteri și setteri
     public Materie getMaterie() {
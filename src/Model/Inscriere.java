@@ -12,7 +12,6 @@ public class Inscriere {
         this.student = student;
         this.curs = curs;
         this.dataInscriere = LocalDate.now();
-        curs.inscriereStudent(student); // Auto-asociere cu materia
     }
 
     // Getteri
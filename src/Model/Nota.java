@@ -10,13 +10,18 @@ public class Nota {
 
     // Constructor
     public Nota(Student student, Curs curs, double valoare) {
+        this(student, curs, valoare, LocalDate.now());
+    }
+
+    // Constructor folosit la încărcarea din baza de date, cu data atribuirii deja cunoscută
+    public Nota(Student student, Curs curs, double valoare, LocalDate dataAtribuire) {
         if (valoare < 1 || valoare > 10) {
             throw new IllegalArgumentException("Nota trebuie să fie între 1 și 10.");
         }
         this.student = student;
         this.curs = curs;
         this.valoare = valoare;
-        this.dataAtribuire = LocalDate.now();
+        this.dataAtribuire = dataAtribuire;
         student.adaugaNota(this); // Auto-asociere cu studentul
     }
 
@@ -0,0 +1,183 @@
+package Repository;
+
+import Service.BatchResult;
+import Service.DatabaseConnectionSingleton;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Execută un INSERT parametrizat pentru o colecție de entități folosind addBatch/executeBatch.
+ * Entitățile sunt trimise în bucăți de dimensiune db.batch.size, fiecare bucată într-o singură tranzacție.
+ * Dacă o bucată eșuează, tranzacția ei este anulată și rândurile sunt reîncercate individual,
+ * pentru ca rezultatul să indice exact care entități au fost respinse și de ce.
+ *
+ * O eroare care oprește lotul după obținerea conexiunii (ex: anularea unei tranzacții pe o conexiune
+ * căzută) nu se propagă: rezultatul conține bucățile deja confirmate, iar restul entităților apar ca eșuate.
+ *
+ * Pentru un INSERT ... SELECT ... WHERE, insertAllConditional blochează la începutul fiecărei tranzacții
+ * rândurile de care depinde condiția și raportează ca ignorate entitățile pentru care nu s-a inserat nimic.
+ */
+final class BatchExecutor {
+
+    /**
+     * Leagă câmpurile unei entități de parametrii instrucțiunii pregătite.
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T entity) throws SQLException;
+    }
+
+    /**
+     * Blochează, în tranzacția curentă, rândurile de care depinde condiția INSERT-urilor unei bucăți.
+     */
+    @FunctionalInterface
+    interface Locker<T> {
+        void lock(Connection conn, List<T> chunk) throws SQLException;
+    }
+
+    private BatchExecutor() {}
+
+    static <T> BatchResult<T> insertAll(DatabaseConnectionSingleton dbConnection, String sql,
+                                        Collection<T> entities, Binder<T> binder) {
+        return execute(dbConnection, sql, entities, binder, null);
+    }
+
+    /**
+     * Ca insertAll, pentru un INSERT condiționat: locker-ul rulează la începutul tranzacției fiecărei bucăți
+     * (și al fiecărui rând, dacă bucata se reia individual), iar entitățile pentru care instrucțiunea
+     * nu a inserat niciun rând ajung în BatchResult.getSkipped().
+     */
+    static <T> BatchResult<T> insertAllConditional(DatabaseConnectionSingleton dbConnection, String sql,
+                                                   Collection<T> entities, Binder<T> binder, Locker<T> locker) {
+        return execute(dbConnection, sql, entities, binder, locker);
+    }
+
+    private static <T> BatchResult<T> execute(DatabaseConnectionSingleton dbConnection, String sql,
+                                              Collection<T> entities, Binder<T> binder, Locker<T> locker) {
+        BatchResult<T> result = new BatchResult<>();
+        if (entities.isEmpty()) {
+            return result;
+        }
+
+        int batchSize = dbConnection.getBatchSize();
+        Connection conn = null;
+        PreparedStatement stmt = null;
+
+        try {
+            conn = dbConnection.getConnection();
+            stmt = conn.prepareStatement(sql);
+
+            List<T> chunk = new ArrayList<>(Math.min(batchSize, entities.size()));
+            for (T entity : entities) {
+                chunk.add(entity);
+                if (chunk.size() == batchSize) {
+                    executeChunk(conn, stmt, chunk, binder, locker, result);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                executeChunk(conn, stmt, chunk, binder, locker, result);
+            }
+            return result;
+        } catch (SQLException e) {
+            System.err.println("Error executing batch insert: " + e.getMessage());
+            if (conn == null) {
+                throw new RuntimeException("Error executing batch insert", e);
+            }
+            // Bucățile confirmate deja rămân în baza de date, deci rezultatul lor se întoarce;
+            // entitățile neprocesate (bucata curentă și cele următoare) se raportează ca eșuate
+            int procesate = result.getSavedCount() + result.getFailedCount() + result.getSkipped().size();
+            entities.stream().skip(procesate).forEach(entity -> result.addFailure(entity, e.getMessage()));
+            return result;
+        } finally {
+            // Close the statement and return the connection to the pool
+            if (stmt != null) {
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing statement: " + e.getMessage());
+                }
+            }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static <T> void executeChunk(Connection conn, PreparedStatement stmt, List<T> chunk,
+                                         Binder<T> binder, Locker<T> locker, BatchResult<T> result) throws SQLException {
+        try {
+            if (locker != null) {
+                locker.lock(conn, chunk);
+            }
+            for (T entity : chunk) {
+                binder.bind(stmt, entity);
+                stmt.addBatch();
+            }
+            int[] counts = stmt.executeBatch();
+            if (locker == null) {
+                conn.commit();
+                result.addSaved(chunk);
+                return;
+            }
+            
+            // Fără numărul de rânduri al fiecărei instrucțiuni nu se știe care condiții au fost îndeplinite
+            for (int count : counts) {
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    conn.rollback();
+                    executeRowByRow(conn, stmt, chunk, binder, locker, result);
+                    return;
+                }
+            }
+            conn.commit();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (counts[i] == 0) {
+                    result.addSkipped(chunk.get(i));
+                } else {
+                    result.addSaved(chunk.get(i));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Batch failed, retrying rows individually: " + e.getMessage());
+            conn.rollback();
+            stmt.clearBatch();
+            executeRowByRow(conn, stmt, chunk, binder, locker, result);
+        }
+    }
+
+    private static <T> void executeRowByRow(Connection conn, PreparedStatement stmt, List<T> chunk,
+                                            Binder<T> binder, Locker<T> locker, BatchResult<T> result) throws SQLException {
+        for (T entity : chunk) {
+            try {
+                if (locker != null) {
+                    locker.lock(conn, Collections.singletonList(entity));
+                }
+                binder.bind(stmt, entity);
+                if (stmt.executeUpdate() == 0) {
+                    if (locker == null) {
+                        throw new SQLException("No rows affected.");
+                    }
+                    conn.rollback();
+                    result.addSkipped(entity);
+                    continue;
+                }
+                conn.commit();
+                result.addSaved(entity);
+            } catch (SQLException e) {
+                conn.rollback();
+                result.addFailure(entity, e.getMessage());
+            }
+        }
+    }
+}
@@ -6,30 +6,35 @@ import Model.Profesor;
 import Model.Sala;
 import Model.Student;
 import Service.AuditService;
+import Service.BatchResult;
 import Service.CrudRepository;
 import Service.DatabaseConnectionSingleton;
 
 import java.sql.*;
-import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class CursRepository implements CrudRepository<Curs, String> {
+    private static final String CURS_GRAPH_SQL =
+            "SELECT " + RowMappers.CURS_COLUMNS + " FROM cursuri c" + RowMappers.CURS_JOINS;
+    
+    private static final String ROSTER_SQL =
+            "SELECT i.curs_id, " + RowMappers.studentColumns("st") + " " +
+            "FROM inscrieri i " +
+            "JOIN studenti st ON st.id = i.student_id";
+    
     private final DatabaseConnectionSingleton dbConnection;
     private final AuditService auditService;
-    private final MaterieRepository materieRepository;
-    private final ProfesorRepository profesorRepository;
-    private final SalaRepository salaRepository;
-    private final StudentRepository studentRepository;
 
     public CursRepository() {
         this.dbConnection = DatabaseConnectionSingleton.getInstance();
         this.auditService = AuditService.getInstance();
-        this.materieRepository = new MaterieRepository();
-        this.profesorRepository = new ProfesorRepository();
-        this.salaRepository = new SalaRepository();
-        this.studentRepository = new StudentRepository();
     }
 
     @Override
@@ -65,7 +70,7 @@ public class CursRepository implements CrudRepository<Curs, String> {
             System.err.println("Error saving curs: " + e.getMessage());
             throw new RuntimeException("Error saving curs", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -73,53 +78,49 @@ public class CursRepository implements CrudRepository<Curs, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
+    /**
+     * Salvează mai multe cursuri folosind instrucțiuni în lot, câte o tranzacție pe fiecare lot.
+     * @param cursuri Cursurile de salvat
+     * @return Cursurile salvate și cele respinse, cu motivul
+     */
     @Override
-    public Optional<Curs> findById(String id) {
-        String sql = "SELECT * FROM cursuri WHERE id = ?";
+    public BatchResult<Curs> saveAll(Collection<Curs> cursuri) {
+        String sql = "INSERT INTO cursuri (id, materie_cod, profesor_id, sala_id, ora_inceput, ora_sfarsit) VALUES (?, ?, ?, ?, ?, ?)";
+        BatchResult<Curs> result = BatchExecutor.insertAll(dbConnection, sql, cursuri, (stmt, curs) -> {
+            stmt.setString(1, curs.getId());
+            stmt.setString(2, curs.getMaterie().getCod());
+            stmt.setString(3, curs.getProfesor().getId());
+            stmt.setString(4, curs.getSala().getId());
+            stmt.setTime(5, Time.valueOf(curs.getOraInceput()));
+            stmt.setTime(6, Time.valueOf(curs.getOraSfarsit()));
+        });
         
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, id);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    String materieCod = rs.getString("materie_cod");
-                    String profesorId = rs.getString("profesor_id");
-                    String salaId = rs.getString("sala_id");
-                    
-                    Materie materie = materieRepository.findById(materieCod)
-                            .orElseThrow(() -> new SQLException("Referenced materie not found"));
-                    
-                    Profesor profesor = profesorRepository.findById(profesorId)
-                            .orElseThrow(() -> new SQLException("Referenced profesor not found"));
-                    
-                    Sala sala = salaRepository.findById(salaId)
-                            .orElseThrow(() -> new SQLException("Referenced sala not found"));
-                    
-                    LocalTime oraInceput = rs.getTime("ora_inceput").toLocalTime();
-                    LocalTime oraSfarsit = rs.getTime("ora_sfarsit").toLocalTime();
-                    
-                    Curs curs = new Curs(
-                            rs.getString("id"),
-                            materie,
-                            profesor,
-                            sala,
-                            oraInceput,
-                            oraSfarsit
-                    );
-                    
-                    // Populăm lista de studenți înscriși la acest curs
-                    populateEnrolledStudents(curs);
-                    
-                    auditService.logActiune("Cautare curs dupa ID in baza de date");
-                    return Optional.of(curs);
-                }
+        auditService.logActiune("Salvare lot cursuri in baza de date", String.valueOf(result.getSavedCount()));
+        return result;
+    }
+
+    @Override
+    public Optional<Curs> findById(String id) {
+        try {
+            List<Curs> cursuri = loadCursuri(
+                    " WHERE c.id = ?",
+                    " WHERE i.curs_id = ?",
+                    id);
+            if (cursuri.isEmpty()) {
                 return Optional.empty();
             }
+            auditService.logActiune("Cautare curs dupa ID in baza de date");
+            return Optional.of(cursuri.get(0));
         } catch (SQLException e) {
             System.err.println("Error finding curs by ID: " + e.getMessage());
             throw new RuntimeException("Error finding curs by ID", e);
@@ -128,47 +129,100 @@ public class CursRepository implements CrudRepository<Curs, String> {
 
     @Override
     public List<Curs> findAll() {
-        String sql = "SELECT * FROM cursuri";
-        List<Curs> cursuri = new ArrayList<>();
+        try {
+            List<Curs> cursuri = loadCursuri("", "");
+            auditService.logActiune("Listare toate cursurile din baza de date");
+            return cursuri;
+        } catch (SQLException e) {
+            System.err.println("Error finding all cursuri: " + e.getMessage());
+            throw new RuntimeException("Error finding all cursuri", e);
+        }
+    }
+
+    /**
+     * Încarcă toate cursurile fără studenții înscriși; lista fiecărui curs este citită
+     * din baza de date abia la primul apel getStudentiInscrisi().
+     */
+    public List<Curs> findAllLazy() {
+        try {
+            List<Curs> cursuri = loadCursuri("", null);
+            cursuri.forEach(curs -> curs.setIncarcatorStudenti(() -> findStudentiByCursId(curs.getId())));
+            auditService.logActiune("Listare toate cursurile din baza de date");
+            return cursuri;
+        } catch (SQLException e) {
+            System.err.println("Error finding all cursuri: " + e.getMessage());
+            throw new RuntimeException("Error finding all cursuri", e);
+        }
+    }
+    
+    /**
+     * Returnează o pagină de cursuri ordonate după ID, începând după afterId (paginare keyset),
+     * cu graful de obiecte complet. Studenții înscriși sunt citiți doar pentru cursurile din pagină,
+     * deci ambele interogări folosesc intervale pe cheile primare, oricât de departe ar fi pagina.
+     * @param afterId ID-ul ultimului curs din pagina anterioară sau null pentru prima pagină
+     * @param limit Numărul maxim de cursuri din pagină
+     */
+    public List<Curs> findPage(String afterId, int limit) {
+        // limit este un int, deci poate fi scris direct în SQL; bindParams leagă doar șiruri
+        String pagina = afterId == null
+                ? "SELECT c.id FROM cursuri c ORDER BY c.id LIMIT " + limit
+                : "SELECT c.id FROM cursuri c WHERE c.id > ? ORDER BY c.id LIMIT " + limit;
+        String cursFilter = afterId == null
+                ? " ORDER BY c.id LIMIT " + limit
+                : " WHERE c.id > ? ORDER BY c.id LIMIT " + limit;
+        String rosterFilter = " WHERE i.curs_id IN (" + pagina + ")";
+        
+        try {
+            List<Curs> cursuri = afterId == null
+                    ? loadCursuri(cursFilter, rosterFilter)
+                    : loadCursuri(cursFilter, rosterFilter, afterId);
+            auditService.logActiune("Listare pagina cursuri din baza de date");
+            return cursuri;
+        } catch (SQLException e) {
+            System.err.println("Error finding curs page: " + e.getMessage());
+            throw new RuntimeException("Error finding curs page", e);
+        }
+    }
+    
+    /**
+     * Parcurge toate cursurile în flux, cu cursor pe server; fluxul trebuie închis după folosire.
+     * Ca la findAllLazy, studenții înscriși se încarcă la primul apel getStudentiInscrisi().
+     */
+    @Override
+    public Stream<Curs> streamAll() {
+        // Materiile, profesorii și sălile sunt puține și partajate între cursuri
+        Map<String, Materie> materii = new HashMap<>();
+        Map<String, Profesor> profesori = new HashMap<>();
+        Map<String, Sala> sali = new HashMap<>();
+        
+        auditService.logActiune("Parcurgere in flux cursuri din baza de date");
+        return ResultSetStreams.stream(dbConnection, CURS_GRAPH_SQL, rs -> {
+            Curs curs = RowMappers.mapCurs(rs, new HashMap<>(), materii, profesori, sali);
+            curs.setIncarcatorStudenti(() -> findStudentiByCursId(curs.getId()));
+            return curs;
+        });
+    }
+    
+    /**
+     * Returnează studenții înscriși la un curs.
+     */
+    public List<Student> findStudentiByCursId(String cursId) {
+        List<Student> studenti = new ArrayList<>();
+        Map<String, Student> local = new HashMap<>();
         
         try (Connection conn = dbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(ROSTER_SQL + " WHERE i.curs_id = ?")) {
+            stmt.setString(1, cursId);
             
-            while (rs.next()) {
-                String materieCod = rs.getString("materie_cod");
-                String profesorId = rs.getString("profesor_id");
-                String salaId = rs.getString("sala_id");
-                
-                Optional<Materie> materieOpt = materieRepository.findById(materieCod);
-                Optional<Profesor> profesorOpt = profesorRepository.findById(profesorId);
-                Optional<Sala> salaOpt = salaRepository.findById(salaId);
-                
-                if (materieOpt.isPresent() && profesorOpt.isPresent() && salaOpt.isPresent()) {
-                    LocalTime oraInceput = rs.getTime("ora_inceput").toLocalTime();
-                    LocalTime oraSfarsit = rs.getTime("ora_sfarsit").toLocalTime();
-                    
-                    Curs curs = new Curs(
-                            rs.getString("id"),
-                            materieOpt.get(),
-                            profesorOpt.get(),
-                            salaOpt.get(),
-                            oraInceput,
-                            oraSfarsit
-                    );
-                    
-                    // Populăm lista de studenți înscriși la acest curs
-                    populateEnrolledStudents(curs);
-                    
-                    cursuri.add(curs);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    studenti.add(RowMappers.mapStudent(rs, local));
                 }
             }
-            
-            auditService.logActiune("Listare toate cursurile din baza de date");
-            return cursuri;
+            return studenti;
         } catch (SQLException e) {
-            System.err.println("Error finding all cursuri: " + e.getMessage());
-            throw new RuntimeException("Error finding all cursuri", e);
+            System.err.println("Error finding studenti by curs ID: " + e.getMessage());
+            throw new RuntimeException("Error finding studenti by curs ID", e);
         }
     }
 
@@ -218,106 +272,75 @@ public class CursRepository implements CrudRepository<Curs, String> {
         }
     }
     
-    /**
-     * Populează lista de studenți înscriși la un curs
-     * @param curs Cursul pentru care se populează lista de studenți
-     */
-    private void populateEnrolledStudents(Curs curs) {
-        String sql = "SELECT s.* FROM studenti s " +
-                     "JOIN inscrieri i ON s.id = i.student_id " +
-                     "WHERE i.curs_id = ?";
-        
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, curs.getId());
+    public List<Curs> findByStudentId(String studentId) {
+        try {
+            List<Curs> cursuri = loadCursuri(
+                    " WHERE c.id IN (SELECT curs_id FROM inscrieri WHERE student_id = ?)",
+                    " WHERE i.curs_id IN (SELECT curs_id FROM inscrieri WHERE student_id = ?)",
+                    studentId);
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    String studentId = rs.getString("id");
-                    Optional<Student> studentOpt = studentRepository.findById(studentId);
-                    
-                    studentOpt.ifPresent(student -> {
-                        // Adăugăm studentul la lista de studenți înscriși la curs
-                        // Verificăm mai întâi dacă studentul nu există deja în listă pentru a evita duplicatele
-                        boolean exists = curs.getStudentiInscrisi().stream()
-                                .anyMatch(s -> s.getId().equals(student.getId()));
-                        
-                        if (!exists) {
-                            curs.inscriereStudent(student);
-                        }
-                    });
-                }
-            }
+            auditService.logActiune("Cautare cursuri dupa ID student in baza de date");
+            return cursuri;
         } catch (SQLException e) {
-            System.err.println("Error populating enrolled students for curs: " + e.getMessage());
-            // Nu aruncăm excepție pentru a nu întrerupe fluxul principal
+            System.err.println("Error finding cursuri by student ID: " + e.getMessage());
+            throw new RuntimeException("Error finding cursuri by student ID", e);
         }
     }
-
-    public List<Curs> findByStudentId(String studentId) {
-        String sql = "SELECT c.* FROM cursuri c " +
-                     "JOIN inscrieri i ON c.id = i.curs_id " +
-                     "WHERE i.student_id = ?";
-        List<Curs> cursuri = new ArrayList<>();
-        
-        System.out.println("Debug - CursRepository.findByStudentId - Executing query for student: " + studentId);
+    
+    /**
+     * Încarcă cursurile împreună cu materia, profesorul, sala și studenții înscriși
+     * folosind doar două interogări: una cu JOIN pentru cursuri și una pentru înscrieri.
+     * Materiile, profesorii, sălile și studenții comuni sunt partajați între cursuri.
+     * @param cursFilter Condiția WHERE aplicată cursurilor (alias "c"), sau șir gol
+     * @param rosterFilter Condiția WHERE aplicată înscrierilor (alias "i"), sau șir gol;
+     *                     null dacă studenții înscriși nu se încarcă acum
+     * @param params Parametrii folosiți de ambele condiții
+     * @return Lista de cursuri cu graful de obiecte asamblat
+     */
+    private List<Curs> loadCursuri(String cursFilter, String rosterFilter, String... params) throws SQLException {
+        Map<String, Curs> cursuri = new LinkedHashMap<>();
+        Map<String, Materie> materii = new HashMap<>();
+        Map<String, Profesor> profesori = new HashMap<>();
+        Map<String, Sala> sali = new HashMap<>();
         
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = dbConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(CURS_GRAPH_SQL + cursFilter)) {
+                bindParams(stmt, params);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        RowMappers.mapCurs(rs, cursuri, materii, profesori, sali);
+                    }
+                }
+            }
             
-            stmt.setString(1, studentId);
+            if (cursuri.isEmpty() || rosterFilter == null) {
+                return new ArrayList<>(cursuri.values());
+            }
             
-            try (ResultSet rs = stmt.executeQuery()) {
-                int rowCount = 0;
+            // Populăm listele de studenți înscriși pentru toate cursurile dintr-o singură interogare
+            Map<String, Student> studenti = new HashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(ROSTER_SQL + rosterFilter)) {
+                bindParams(stmt, params);
                 
-                while (rs.next()) {
-                    rowCount++;
-                    String cursId = rs.getString("id");
-                    System.out.println("Debug - Found course: " + cursId + " for student: " + studentId);
-                    
-                    String materieCod = rs.getString("materie_cod");
-                    String profesorId = rs.getString("profesor_id");
-                    String salaId = rs.getString("sala_id");
-                    
-                    Optional<Materie> materieOpt = materieRepository.findById(materieCod);
-                    Optional<Profesor> profesorOpt = profesorRepository.findById(profesorId);
-                    Optional<Sala> salaOpt = salaRepository.findById(salaId);
-                    
-                    if (materieOpt.isPresent() && profesorOpt.isPresent() && salaOpt.isPresent()) {
-                        LocalTime oraInceput = rs.getTime("ora_inceput").toLocalTime();
-                        LocalTime oraSfarsit = rs.getTime("ora_sfarsit").toLocalTime();
-                        
-                        Curs curs = new Curs(
-                                cursId,
-                                materieOpt.get(),
-                                profesorOpt.get(),
-                                salaOpt.get(),
-                                oraInceput,
-                                oraSfarsit
-                        );
-                        
-                        // Obținem studentul și îl adăugăm la lista de studenți înscriși la curs
-                        studentRepository.findById(studentId).ifPresent(student -> {
-                            curs.inscriereStudent(student);
-                            System.out.println("Debug - Added student " + studentId + " to course " + cursId);
-                        });
-                        
-                        // Populăm și restul studenților înscriși la acest curs
-                        populateEnrolledStudents(curs);
-                        
-                        cursuri.add(curs);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        Curs curs = cursuri.get(rs.getString("curs_id"));
+                        if (curs == null) {
+                            continue;
+                        }
+                        curs.inscriereStudent(RowMappers.mapStudent(rs, studenti));
                     }
                 }
-                
-                System.out.println("Debug - CursRepository.findByStudentId - Found " + rowCount + " rows for student: " + studentId);
             }
-            
-            auditService.logActiune("Cautare cursuri dupa ID student in baza de date");
-            return cursuri;
-        } catch (SQLException e) {
-            System.err.println("Error finding cursuri by student ID: " + e.getMessage());
-            throw new RuntimeException("Error finding cursuri by student ID", e);
+        }
+        
+        return new ArrayList<>(cursuri.values());
+    }
+    
+    private static void bindParams(PreparedStatement stmt, String... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            stmt.setString(i + 1, params[i]);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+package Repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Identity map pentru o unitate de lucru: garantează o singură instanță per (tip entitate, ID).
+ * Repository-urile îl consultă înainte de a interoga baza de date și înregistrează în el
+ * entitățile pe care le încarcă. În afara unei unități de lucru active, repository-urile
+ * se comportă ca înainte și creează instanțe noi la fiecare interogare.
+ *
+ * <pre>
+ * IdentityMap.UnitOfWork uow = IdentityMap.begin();
+ * try {
+ *     // toate citirile de pe acest fir partajează aceleași instanțe
+ * } finally {
+ *     uow.close();
+ * }
+ * </pre>
+ */
+public final class IdentityMap {
+    private static final ThreadLocal<IdentityMap> CURRENT = new ThreadLocal<>();
+
+    private final Map<Class<?>, Map<String, Object>> entities = new ConcurrentHashMap<>();
+
+    private IdentityMap() {}
+
+    /**
+     * Începe o unitate de lucru pe firul curent. Dacă există deja una activă,
+     * scope-ul returnat o refolosește și nu o închide la final.
+     */
+    public static UnitOfWork begin() {
+        IdentityMap existing = CURRENT.get();
+        if (existing != null) {
+            return new UnitOfWork(existing, false);
+        }
+        IdentityMap map = new IdentityMap();
+        CURRENT.set(map);
+        return new UnitOfWork(map, true);
+    }
+
+    /**
+     * @return identity map-ul unității de lucru active pe firul curent, sau null dacă nu există
+     */
+    public static IdentityMap current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Atașează acest identity map firului curent, pentru a partaja o unitate de lucru
+     * între mai multe fire de execuție.
+     */
+    public UnitOfWork attach() {
+        IdentityMap previous = CURRENT.get();
+        if (previous == this) {
+            return new UnitOfWork(this, false);
+        }
+        if (previous != null) {
+            throw new IllegalStateException("Another unit of work is already active on this thread");
+        }
+        CURRENT.set(this);
+        return new UnitOfWork(this, true);
+    }
+
+    public <T> T get(Class<T> type, String id) {
+        Map<String, Object> byId = entities.get(type);
+        return byId != null ? type.cast(byId.get(id)) : null;
+    }
+
+    /**
+     * Înregistrează o entitate dacă nu există deja una cu același ID.
+     * @return instanța canonică (cea existentă sau cea nou înregistrată)
+     */
+    public <T> T register(Class<T> type, String id, T entity) {
+        Object existing = entities.computeIfAbsent(type, k -> new ConcurrentHashMap<>()).putIfAbsent(id, entity);
+        return existing != null ? type.cast(existing) : entity;
+    }
+
+    /**
+     * Înlocuiește instanța cunoscută pentru un ID (ex: după actualizare).
+     */
+    public <T> void replace(Class<T> type, String id, T entity) {
+        entities.computeIfAbsent(type, k -> new ConcurrentHashMap<>()).put(id, entity);
+    }
+
+    public void evict(Class<?> type, String id) {
+        Map<String, Object> byId = entities.get(type);
+        if (byId != null) {
+            byId.remove(id);
+        }
+    }
+
+    public int size() {
+        return entities.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Returnează instanța din unitatea de lucru activă, dacă există.
+     */
+    static <T> T lookup(Class<T> type, String id) {
+        IdentityMap map = CURRENT.get();
+        return map != null ? map.get(type, id) : null;
+    }
+
+    /**
+     * Înregistrează entitatea în unitatea de lucru activă, dacă există.
+     * @return instanța canonică pentru ID
+     */
+    static <T> T track(Class<T> type, String id, T entity) {
+        IdentityMap map = CURRENT.get();
+        return map != null ? map.register(type, id, entity) : entity;
+    }
+
+    static <T> void trackUpdate(Class<T> type, String id, T entity) {
+        IdentityMap map = CURRENT.get();
+        if (map != null) {
+            map.replace(type, id, entity);
+        }
+    }
+
+    static void untrack(Class<?> type, String id) {
+        IdentityMap map = CURRENT.get();
+        if (map != null) {
+            map.evict(type, id);
+        }
+    }
+
+    /**
+     * Scope-ul unei unități de lucru; la închidere detașează identity map-ul de pe fir.
+     */
+    public static final class UnitOfWork implements AutoCloseable {
+        private final IdentityMap map;
+        private final boolean owner;
+
+        private UnitOfWork(IdentityMap map, boolean owner) {
+            this.map = map;
+            this.owner = owner;
+        }
+
+        public IdentityMap getIdentityMap() {
+            return map;
+        }
+
+        @Override
+        public void close() {
+            if (owner && CURRENT.get() == map) {
+                CURRENT.remove();
+            }
+        }
+    }
+}
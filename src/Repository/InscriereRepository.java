@@ -4,13 +4,20 @@ import Model.Curs;
 import Model.Inscriere;
 import Model.Student;
 import Service.AuditService;
+import Service.BatchResult;
 import Service.DatabaseConnectionSingleton;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class InscriereRepository {
     private final DatabaseConnectionSingleton dbConnection;
@@ -19,10 +26,14 @@ public class InscriereRepository {
     private final CursRepository cursRepository;
 
     public InscriereRepository() {
+        this(new StudentRepository(), new CursRepository());
+    }
+
+    public InscriereRepository(StudentRepository studentRepository, CursRepository cursRepository) {
         this.dbConnection = DatabaseConnectionSingleton.getInstance();
         this.auditService = AuditService.getInstance();
-        this.studentRepository = new StudentRepository();
-        this.cursRepository = new CursRepository();
+        this.studentRepository = studentRepository;
+        this.cursRepository = cursRepository;
     }
 
     public void save(Inscriere inscriere) {
@@ -54,7 +65,7 @@ public class InscriereRepository {
             System.err.println("Error saving inscriere: " + e.getMessage());
             throw new RuntimeException("Error saving inscriere", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -62,13 +73,236 @@ public class InscriereRepository {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Rezultatul unei înscrieri condiționate de capacitatea sălii.
+     */
+    public enum SaveStatus { SAVED, ALREADY_ENROLLED, COURSE_FULL, COURSE_NOT_FOUND }
+
+    /**
+     * Rezultatul ștergerii unei înscrieri.
+     */
+    public static final class DeleteResult {
+        private final boolean deleted;
+        private final String promotedStudentId;
+
+        DeleteResult(boolean deleted, String promotedStudentId) {
+            this.deleted = deleted;
+            this.promotedStudentId = promotedStudentId;
+        }
+
+        public boolean isDeleted() { return deleted; }
+
+        /** @return Studentul mutat de pe lista de așteptare pe locul eliberat sau null */
+        public String getPromotedStudentId() { return promotedStudentId; }
+    }
+
+    /**
+     * Salvează înscrierea doar dacă sala cursului mai are locuri libere, într-o singură tranzacție.
+     * Rândul cursului este blocat cu SELECT ... FOR UPDATE, deci înscrierile simultane la același
+     * curs (chiar și din instanțe diferite ale aplicației) sunt serializate în baza de date, iar
+     * INSERT-ul are loc doar dacă numărul înscrierilor existente este sub capacitatea sălii.
+     * Unicitatea perechii (student, curs) este garantată de cheia primară.
+     * @return SAVED dacă înscrierea a fost salvată, altfel motivul respingerii
+     */
+    public SaveStatus saveWithinCapacity(Inscriere inscriere) {
+        String lockSql = "SELECT sala_id FROM cursuri WHERE id = ? FOR UPDATE";
+        String insertSql = "INSERT INTO inscrieri (student_id, curs_id, data_inscriere) " +
+                "SELECT ?, ?, ? FROM sali s WHERE s.id = ? " +
+                "AND s.capacitate > (SELECT COUNT(*) FROM inscrieri WHERE curs_id = ?)";
+        String studentId = inscriere.getStudent().getId();
+        String cursId = inscriere.getCurs().getId();
+        
+        try (Connection conn = dbConnection.getConnection()) {
+            try {
+                String salaId;
+                try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                    stmt.setString(1, cursId);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        if (!rs.next()) {
+                            conn.rollback();
+                            return SaveStatus.COURSE_NOT_FOUND;
+                        }
+                        salaId = rs.getString("sala_id");
+                    }
+                }
+                
+                try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+                    stmt.setString(1, studentId);
+                    stmt.setString(2, cursId);
+                    stmt.setDate(3, Date.valueOf(inscriere.getDataInscriere()));
+                    stmt.setString(4, salaId);
+                    stmt.setString(5, cursId);
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return SaveStatus.COURSE_FULL;
+                    }
+                }
+                
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                // Cheia primară (student_id, curs_id) există deja
+                if ("23505".equals(e.getSQLState())) {
+                    return SaveStatus.ALREADY_ENROLLED;
+                }
+                throw e;
+            }
+            
+            auditService.logActiune("Salvare inscriere in baza de date", studentId + " la " + cursId);
+            return SaveStatus.SAVED;
+        } catch (SQLException e) {
+            System.err.println("Error saving inscriere: " + e.getMessage());
+            throw new RuntimeException("Error saving inscriere", e);
+        }
+    }
+
+    /**
+     * @return Numărul de înscrieri pentru fiecare curs care are cel puțin o înscriere
+     */
+    public Map<String, Integer> countByCurs() {
+        String sql = "SELECT curs_id, COUNT(*) AS numar FROM inscrieri GROUP BY curs_id";
+        Map<String, Integer> numere = new HashMap<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                numere.put(rs.getString("curs_id"), rs.getInt("numar"));
+            }
+            return numere;
+        } catch (SQLException e) {
+            System.err.println("Error counting inscrieri by curs: " + e.getMessage());
+            throw new RuntimeException("Error counting inscrieri by curs", e);
+        }
+    }
+
+    /**
+     * Citește cursurile la care sunt înscriși studenții dați, filtrând după cheia primară: câte o interogare
+     * cu WHERE student_id IN (...) pentru fiecare bucată de db.batch.size studenți.
+     * @param studentIds ID-urile studenților de interes
+     * @return Pentru fiecare student cu cel puțin o înscriere, ID-urile cursurilor lui
+     */
+    public Map<String, List<String>> findCursIdsByStudenti(Set<String> studentIds) {
+        Map<String, List<String>> cursuri = new HashMap<>();
+        if (studentIds.isEmpty()) {
+            return cursuri;
+        }
+        
+        List<String> ids = new ArrayList<>(studentIds);
+        int batchSize = dbConnection.getBatchSize();
+        try (Connection conn = dbConnection.getConnection()) {
+            for (int start = 0; start < ids.size(); start += batchSize) {
+                List<String> bucata = ids.subList(start, Math.min(ids.size(), start + batchSize));
+                String sql = "SELECT student_id, curs_id FROM inscrieri WHERE student_id IN (" +
+                        String.join(", ", Collections.nCopies(bucata.size(), "?")) + ")";
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < bucata.size(); i++) {
+                        stmt.setString(i + 1, bucata.get(i));
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        citesteCursIds(rs, cursuri);
+                    }
+                }
+            }
+            return cursuri;
+        } catch (SQLException e) {
+            System.err.println("Error finding inscrieri by studenti: " + e.getMessage());
+            throw new RuntimeException("Error finding inscrieri by studenti", e);
+        }
+    }
+    
+    /**
+     * Citește toată tabela inscrieri (la pornire, pentru orarele tuturor studenților).
+     * @return Pentru fiecare student cu cel puțin o înscriere, ID-urile cursurilor lui
+     */
+    public Map<String, List<String>> findAllCursIdsByStudent() {
+        String sql = "SELECT student_id, curs_id FROM inscrieri";
+        Map<String, List<String>> cursuri = new HashMap<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            citesteCursIds(rs, cursuri);
+            return cursuri;
+        } catch (SQLException e) {
+            System.err.println("Error finding all inscrieri: " + e.getMessage());
+            throw new RuntimeException("Error finding all inscrieri", e);
         }
     }
+    
+    private static void citesteCursIds(ResultSet rs, Map<String, List<String>> cursuri) throws SQLException {
+        while (rs.next()) {
+            cursuri.computeIfAbsent(rs.getString("student_id"), k -> new ArrayList<>()).add(rs.getString("curs_id"));
+        }
+    }
+
+    /**
+     * Salvează mai multe înscrieri folosind instrucțiuni în lot, câte o tranzacție pe fiecare lot.
+     * @param inscrieri Înscrierile de salvat
+     * @return Înscrierile salvate și cele respinse, cu motivul
+     */
+    public BatchResult<Inscriere> saveAll(Collection<Inscriere> inscrieri) {
+        String sql = "INSERT INTO inscrieri (student_id, curs_id, data_inscriere) VALUES (?, ?, ?)";
+        BatchResult<Inscriere> result = BatchExecutor.insertAll(dbConnection, sql, inscrieri, (stmt, inscriere) -> {
+            stmt.setString(1, inscriere.getStudent().getId());
+            stmt.setString(2, inscriere.getCurs().getId());
+            stmt.setDate(3, Date.valueOf(inscriere.getDataInscriere()));
+        });
+        
+        auditService.logActiune("Salvare lot inscrieri in baza de date", String.valueOf(result.getSavedCount()));
+        return result;
+    }
+
+    /**
+     * Salvează înscrierile în loturi, fiecare cu aceeași verificare de capacitate ca saveWithinCapacity:
+     * rândurile cursurilor dintr-o bucată se blochează la începutul tranzacției ei, în ordinea ID-urilor,
+     * ca două loturi sau un lot și o înscriere individuală să nu se aștepte reciproc, iar fiecare rând
+     * se inserează doar dacă sala mai are loc, numărând și rândurile inserate deja în aceeași bucată.
+     * @return Înscrierile salvate, cele respinse de baza de date și, ca ignorate, cele pentru care cursul era plin
+     */
+    public BatchResult<Inscriere> saveAllWithinCapacity(Collection<Inscriere> inscrieri) {
+        String lockSql = "SELECT id FROM cursuri WHERE id = ? FOR UPDATE";
+        String insertSql = "INSERT INTO inscrieri (student_id, curs_id, data_inscriere) " +
+                "SELECT ?, c.id, ? FROM cursuri c JOIN sali s ON s.id = c.sala_id WHERE c.id = ? " +
+                "AND s.capacitate > (SELECT COUNT(*) FROM inscrieri WHERE curs_id = ?)";
+        BatchResult<Inscriere> result = BatchExecutor.insertAllConditional(dbConnection, insertSql, inscrieri,
+                (stmt, inscriere) -> {
+                    stmt.setString(1, inscriere.getStudent().getId());
+                    stmt.setDate(2, Date.valueOf(inscriere.getDataInscriere()));
+                    stmt.setString(3, inscriere.getCurs().getId());
+                    stmt.setString(4, inscriere.getCurs().getId());
+                },
+                (conn, bucata) -> {
+                    Set<String> cursIds = new TreeSet<>();
+                    bucata.forEach(inscriere -> cursIds.add(inscriere.getCurs().getId()));
+                    try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                        for (String cursId : cursIds) {
+                            stmt.setString(1, cursId);
+                            stmt.executeQuery().close();
+                        }
+                    }
+                });
+        
+        auditService.logActiune("Salvare lot inscrieri in limita capacitatii", result.toString());
+        return result;
+    }
 
     public List<Inscriere> findByStudentId(String studentId) {
         String sql = "SELECT * FROM inscrieri WHERE student_id = ?";
         List<Inscriere> inscrieri = new ArrayList<>();
         
+        // Studentul este același pe toate rândurile; unitatea de lucru evită reîncărcarea lui
+        IdentityMap.UnitOfWork uow = IdentityMap.begin();
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
@@ -97,42 +331,78 @@ public class InscriereRepository {
         } catch (SQLException e) {
             System.err.println("Error finding inscrieri by student ID: " + e.getMessage());
             throw new RuntimeException("Error finding inscrieri by student ID", e);
+        } finally {
+            uow.close();
         }
     }
 
-    public boolean deleteByStudentAndCursId(String studentId, String cursId) {
-        String sql = "DELETE FROM inscrieri WHERE student_id = ? AND curs_id = ?";
-        Connection conn = null;
-        PreparedStatement stmt = null;
+    /**
+     * Șterge înscrierea și, în aceeași tranzacție, oferă locul eliberat studentului dat de pe lista
+     * de așteptare a cursului: acesta este scos de pe listă și înscris. Studentul este ales de apelant,
+     * deoarece conflictele de orar, pentru care sunt săriți cei de la începutul listei, nu se văd în SQL.
+     * Rândul cursului este blocat la început, ca la saveWithinCapacity, deci locul nu poate fi ocupat
+     * între timp de altă înscriere.
+     * @param promotedStudentId Studentul de pe listă care primește locul sau null pentru a-l elibera
+     * @return Dacă înscrierea a existat și studentul care a primit locul, dacă a existat unul
+     */
+    public DeleteResult deleteByStudentAndCursId(String studentId, String cursId, String promotedStudentId) {
+        String lockSql = "SELECT id FROM cursuri WHERE id = ? FOR UPDATE";
+        String deleteSql = "DELETE FROM inscrieri WHERE student_id = ? AND curs_id = ?";
+        String dequeueSql = "DELETE FROM lista_asteptare WHERE curs_id = ? AND student_id = ?";
+        String insertSql = "INSERT INTO inscrieri (student_id, curs_id, data_inscriere) " +
+                "SELECT ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM inscrieri WHERE student_id = ? AND curs_id = ?)";
         
-        try {
-            conn = dbConnection.getConnection();
-            stmt = conn.prepareStatement(sql);
-            
-            stmt.setString(1, studentId);
-            stmt.setString(2, cursId);
-            
-            int affectedRows = stmt.executeUpdate();
-            
-            // Commit transaction explicitly
-            dbConnection.commitTransaction();
+        try (Connection conn = dbConnection.getConnection()) {
+            boolean promoted = false;
+            try {
+                try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                    stmt.setString(1, cursId);
+                    stmt.executeQuery().close();
+                }
+                
+                try (PreparedStatement stmt = conn.prepareStatement(deleteSql)) {
+                    stmt.setString(1, studentId);
+                    stmt.setString(2, cursId);
+                    if (stmt.executeUpdate() == 0) {
+                        conn.rollback();
+                        return new DeleteResult(false, null);
+                    }
+                }
+                
+                // Studentul primește locul doar dacă este încă pe listă și nu este deja înscris
+                if (promotedStudentId != null) {
+                    try (PreparedStatement stmt = conn.prepareStatement(dequeueSql)) {
+                        stmt.setString(1, cursId);
+                        stmt.setString(2, promotedStudentId);
+                        promoted = stmt.executeUpdate() > 0;
+                    }
+                }
+                if (promoted) {
+                    try (PreparedStatement stmt = conn.prepareStatement(insertSql)) {
+                        stmt.setString(1, promotedStudentId);
+                        stmt.setString(2, cursId);
+                        stmt.setDate(3, Date.valueOf(LocalDate.now()));
+                        stmt.setString(4, promotedStudentId);
+                        stmt.setString(5, cursId);
+                        promoted = stmt.executeUpdate() > 0;
+                    }
+                }
+                
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
             
             auditService.logActiune("Stergere inscriere din baza de date");
-            return affectedRows > 0;
+            if (promoted) {
+                auditService.logActiune("Inscriere de pe lista de asteptare in baza de date",
+                        promotedStudentId + " la " + cursId);
+            }
+            return new DeleteResult(true, promoted ? promotedStudentId : null);
         } catch (SQLException e) {
-            // Rollback in case of error
-            dbConnection.rollbackTransaction();
             System.err.println("Error deleting inscriere: " + e.getMessage());
             throw new RuntimeException("Error deleting inscriere", e);
-        } finally {
-            // Don't close the connection, just the statement
-            if (stmt != null) {
-                try {
-                    stmt.close();
-                } catch (SQLException e) {
-                    System.err.println("Error closing statement: " + e.getMessage());
-                }
-            }
         }
     }
     
@@ -215,7 +485,7 @@ public class InscriereRepository {
             System.err.println("Error deleting enrollments for student: " + e.getMessage());
             throw new RuntimeException("Error deleting enrollments for student", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -223,6 +493,13 @@ public class InscriereRepository {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
     
@@ -255,7 +532,7 @@ public class InscriereRepository {
             System.err.println("Error deleting enrollments for course: " + e.getMessage());
             throw new RuntimeException("Error deleting enrollments for course", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -263,6 +540,13 @@ public class InscriereRepository {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
     
@@ -277,11 +561,8 @@ public class InscriereRepository {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    int count = rs.getInt(1);
-                    System.out.println("Debug - IsStudentEnrolled - Student: " + studentId + ", Curs: " + cursId + ", Enrolled: " + (count > 0));
-                    return count > 0;
+                    return rs.getInt(1) > 0;
                 }
-                System.out.println("Debug - IsStudentEnrolled - Student: " + studentId + ", Curs: " + cursId + ", No result from query");
                 return false;
             }
         } catch (SQLException e) {
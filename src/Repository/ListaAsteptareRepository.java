@@ -0,0 +1,125 @@
+package Repository;
+
+import Service.AuditService;
+import Service.DatabaseConnectionSingleton;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listele de așteptare ale cursurilor pline: pentru fiecare curs, studenții în ordinea
+ * în care s-au înscris pe listă (ordinea ID-urilor din tabela lista_asteptare).
+ * Mutarea primului student pe un loc eliberat se face în InscriereRepository.deleteByStudentAndCursId,
+ * în aceeași tranzacție cu ștergerea înscrierii.
+ */
+public class ListaAsteptareRepository {
+    private final DatabaseConnectionSingleton dbConnection;
+    private final AuditService auditService;
+
+    public ListaAsteptareRepository() {
+        this.dbConnection = DatabaseConnectionSingleton.getInstance();
+        this.auditService = AuditService.getInstance();
+    }
+
+    /**
+     * Adaugă studentul la sfârșitul listei de așteptare a cursului.
+     * @return true dacă a fost adăugat, false dacă era deja pe listă
+     */
+    public boolean save(String studentId, String cursId) {
+        String sql = "INSERT INTO lista_asteptare (student_id, curs_id, data_adaugare) VALUES (?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, studentId);
+            stmt.setString(2, cursId);
+            stmt.setDate(3, Date.valueOf(LocalDate.now()));
+
+            try {
+                stmt.executeUpdate();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                // Constrângerea UNIQUE (student_id, curs_id)
+                if ("23505".equals(e.getSQLState())) {
+                    return false;
+                }
+                throw e;
+            }
+
+            auditService.logActiune("Adaugare pe lista de asteptare in baza de date", studentId + " la " + cursId);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error saving waitlist entry: " + e.getMessage());
+            throw new RuntimeException("Error saving waitlist entry", e);
+        }
+    }
+
+    public boolean deleteByStudentAndCursId(String studentId, String cursId) {
+        String sql = "DELETE FROM lista_asteptare WHERE student_id = ? AND curs_id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, studentId);
+            stmt.setString(2, cursId);
+
+            int affectedRows = stmt.executeUpdate();
+            conn.commit();
+
+            auditService.logActiune("Stergere de pe lista de asteptare din baza de date");
+            return affectedRows > 0;
+        } catch (SQLException e) {
+            System.err.println("Error deleting waitlist entry: " + e.getMessage());
+            throw new RuntimeException("Error deleting waitlist entry", e);
+        }
+    }
+
+    public int deleteByStudentId(String studentId) {
+        return deleteBy("student_id", studentId);
+    }
+
+    public int deleteByCursId(String cursId) {
+        return deleteBy("curs_id", cursId);
+    }
+
+    /**
+     * @return Pentru fiecare curs cu studenți în așteptare, ID-urile studenților în ordinea listei
+     */
+    public Map<String, List<String>> findAllByCurs() {
+        String sql = "SELECT student_id, curs_id FROM lista_asteptare ORDER BY curs_id, id";
+        Map<String, List<String>> liste = new LinkedHashMap<>();
+
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                liste.computeIfAbsent(rs.getString("curs_id"), k -> new ArrayList<>()).add(rs.getString("student_id"));
+            }
+            return liste;
+        } catch (SQLException e) {
+            System.err.println("Error finding waitlists: " + e.getMessage());
+            throw new RuntimeException("Error finding waitlists", e);
+        }
+    }
+
+    private int deleteBy(String coloana, String valoare) {
+        String sql = "DELETE FROM lista_asteptare WHERE " + coloana + " = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, valoare);
+
+            int affectedRows = stmt.executeUpdate();
+            conn.commit();
+
+            auditService.logActiune("Stergere liste de asteptare din baza de date", valoare);
+            return affectedRows;
+        } catch (SQLException e) {
+            System.err.println("Error deleting waitlist entries: " + e.getMessage());
+            throw new RuntimeException("Error deleting waitlist entries", e);
+        }
+    }
+}
@@ -2,13 +2,16 @@ package Repository;
 
 import Model.Materie;
 import Service.AuditService;
+import Service.BatchResult;
 import Service.CrudRepository;
 import Service.DatabaseConnectionSingleton;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class MaterieRepository implements CrudRepository<Materie, String> {
     private final DatabaseConnectionSingleton dbConnection;
@@ -41,6 +44,7 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
             // Commit the transaction
             dbConnection.commitTransaction();
             
+            IdentityMap.track(Materie.class, materie.getCod(), materie);
             auditService.logActiune("Salvare materie in baza de date");
             return materie;
         } catch (SQLException e) {
@@ -49,7 +53,7 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
             System.err.println("Error saving materie: " + e.getMessage());
             throw new RuntimeException("Error saving materie", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -57,11 +61,42 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
+    /**
+     * Salvează mai multe materii folosind instrucțiuni în lot, câte o tranzacție pe fiecare lot.
+     * @param materii Materiile de salvat
+     * @return Materiile salvate și cele respinse, cu motivul
+     */
+    @Override
+    public BatchResult<Materie> saveAll(Collection<Materie> materii) {
+        String sql = "INSERT INTO materii (cod, nume, credite) VALUES (?, ?, ?)";
+        BatchResult<Materie> result = BatchExecutor.insertAll(dbConnection, sql, materii, (stmt, materie) -> {
+            stmt.setString(1, materie.getCod());
+            stmt.setString(2, materie.getNume());
+            stmt.setInt(3, materie.getCredite());
+        });
+        
+        result.getSaved().forEach(materie -> IdentityMap.track(Materie.class, materie.getCod(), materie));
+        auditService.logActiune("Salvare lot materii in baza de date", String.valueOf(result.getSavedCount()));
+        return result;
+    }
+
     @Override
     public Optional<Materie> findById(String cod) {
+        Materie cached = IdentityMap.lookup(Materie.class, cod);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
         String sql = "SELECT * FROM materii WHERE cod = ?";
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -80,6 +115,7 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
                         rs.getString("cod"),
                         rs.getInt("credite")
                 );
+                materie = IdentityMap.track(Materie.class, materie.getCod(), materie);
                 
                 auditService.logActiune("Cautare materie dupa cod in baza de date");
                 return Optional.of(materie);
@@ -89,7 +125,7 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
             System.err.println("Error finding materie by cod: " + e.getMessage());
             throw new RuntimeException("Error finding materie by cod", e);
         } finally {
-            // Close resources but not the connection
+            // Close resources and return the connection to the pool
             if (rs != null) {
                 try {
                     rs.close();
@@ -104,6 +140,13 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
@@ -126,7 +169,7 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
                         rs.getString("cod"),
                         rs.getInt("credite")
                 );
-                materii.add(materie);
+                materii.add(IdentityMap.track(Materie.class, materie.getCod(), materie));
             }
             
             auditService.logActiune("Listare toate materiile din baza de date");
@@ -135,7 +178,7 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
             System.err.println("Error finding all materii: " + e.getMessage());
             throw new RuntimeException("Error finding all materii", e);
         } finally {
-            // Close resources but not the connection
+            // Close resources and return the connection to the pool
             if (rs != null) {
                 try {
                     rs.close();
@@ -150,9 +193,32 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
+    /**
+     * Parcurge toate materiile în flux, cu cursor pe server; fluxul trebuie închis după folosire.
+     */
+    @Override
+    public Stream<Materie> streamAll() {
+        auditService.logActiune("Parcurgere in flux materii din baza de date");
+        return ResultSetStreams.stream(dbConnection, "SELECT * FROM materii", rs -> {
+            Materie materie = new Materie(
+                    rs.getString("nume"),
+                    rs.getString("cod"),
+                    rs.getInt("credite")
+            );
+            return IdentityMap.track(Materie.class, materie.getCod(), materie);
+        });
+    }
+
     @Override
     public Materie update(String cod, Materie materie) {
         String sql = "UPDATE materii SET nume = ?, credite = ? WHERE cod = ?";
@@ -175,6 +241,7 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
             // Commit the transaction
             dbConnection.commitTransaction();
             
+            IdentityMap.trackUpdate(Materie.class, cod, materie);
             auditService.logActiune("Actualizare materie in baza de date");
             return materie;
         } catch (SQLException e) {
@@ -183,7 +250,7 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
             System.err.println("Error updating materie: " + e.getMessage());
             throw new RuntimeException("Error updating materie", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -191,6 +258,13 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
@@ -211,6 +285,7 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
             // Commit the transaction
             dbConnection.commitTransaction();
             
+            IdentityMap.untrack(Materie.class, cod);
             auditService.logActiune("Stergere materie din baza de date");
             return affectedRows > 0;
         } catch (SQLException e) {
@@ -219,7 +294,7 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
             System.err.println("Error deleting materie: " + e.getMessage());
             throw new RuntimeException("Error deleting materie", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -227,6 +302,13 @@ public class MaterieRepository implements CrudRepository<Materie, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 }
\ No newline at end of file
@@ -1,28 +1,50 @@
 package Repository;
 
 import Model.Curs;
+import Model.Materie;
 import Model.Nota;
+import Model.Profesor;
+import Model.Sala;
 import Model.Student;
 import Service.AuditService;
+import Service.BatchResult;
 import Service.DatabaseConnectionSingleton;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 public class NotaRepository {
+    private static final String NOTA_GRAPH_SQL =
+            "SELECT n.valoare, n.data_atribuire, " + RowMappers.studentColumns("st") + ", " + RowMappers.CURS_COLUMNS + " " +
+            "FROM note n " +
+            "JOIN studenti st ON st.id = n.student_id " +
+            "JOIN cursuri c ON c.id = n.curs_id" + RowMappers.CURS_JOINS;
+    
     private final DatabaseConnectionSingleton dbConnection;
     private final AuditService auditService;
-    private final StudentRepository studentRepository;
-    private final CursRepository cursRepository;
+    private final List<WriteListener> writeListeners = new CopyOnWriteArrayList<>();
 
     public NotaRepository() {
         this.dbConnection = DatabaseConnectionSingleton.getInstance();
         this.auditService = AuditService.getInstance();
-        this.studentRepository = new StudentRepository();
-        this.cursRepository = new CursRepository();
+    }
+    
+    /**
+     * Înregistrează un ascultător notificat după fiecare scriere reușită în tabela note.
+     */
+    public void addWriteListener(WriteListener listener) {
+        writeListeners.add(listener);
+    }
+    
+    public void removeWriteListener(WriteListener listener) {
+        writeListeners.remove(listener);
     }
 
     public void save(Nota nota) {
@@ -51,6 +73,7 @@ public class NotaRepository {
                     " for student " + nota.getStudent().getId() + 
                     " in course " + nota.getCurs().getId());
             
+            writeListeners.forEach(listener -> listener.onInsert(nota));
             auditService.logActiune("Salvare nota in baza de date", 
                     nota.getStudent().getId() + " la " + nota.getCurs().getId() + " nota " + nota.getValoare());
         } catch (SQLException e) {
@@ -59,7 +82,7 @@ public class NotaRepository {
             System.err.println("Error saving nota: " + e.getMessage());
             throw new RuntimeException("Error saving nota", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -67,60 +90,40 @@ public class NotaRepository {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
-    public List<Nota> findByStudentId(String studentId) {
-        String sql = "SELECT * FROM note WHERE student_id = ? ORDER BY data_atribuire";
-        List<Nota> note = new ArrayList<>();
-        
-        System.out.println("Debug - NotaRepository.findByStudentId - Searching grades for student: " + studentId);
+    /**
+     * Salvează mai multe note folosind instrucțiuni în lot, câte o tranzacție pe fiecare lot.
+     * @param note Notele de salvat
+     * @return Notele salvate și cele respinse, cu motivul
+     */
+    public BatchResult<Nota> saveAll(Collection<Nota> note) {
+        String sql = "INSERT INTO note (student_id, curs_id, valoare, data_atribuire) VALUES (?, ?, ?, ?)";
+        BatchResult<Nota> result = BatchExecutor.insertAll(dbConnection, sql, note, (stmt, nota) -> {
+            stmt.setString(1, nota.getStudent().getId());
+            stmt.setString(2, nota.getCurs().getId());
+            stmt.setDouble(3, nota.getValoare());
+            stmt.setDate(4, Date.valueOf(nota.getDataAtribuire()));
+        });
         
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setString(1, studentId);
-            
-            try (ResultSet rs = stmt.executeQuery()) {
-                int count = 0;
-                while (rs.next()) {
-                    count++;
-                    String cursId = rs.getString("curs_id");
-                    double valoare = rs.getDouble("valoare");
-                    LocalDate dataAtribuire = rs.getDate("data_atribuire").toLocalDate();
-                    
-                    System.out.println("Debug - NotaRepository - Found grade " + valoare + 
-                            " for course " + cursId + 
-                            " on date " + dataAtribuire);
-                    
-                    Optional<Student> studentOpt = studentRepository.findById(studentId);
-                    Optional<Curs> cursOpt = cursRepository.findById(cursId);
-                    
-                    if (studentOpt.isPresent() && cursOpt.isPresent()) {
-                        Nota nota = new Nota(studentOpt.get(), cursOpt.get(), valoare);
-                        // Get the date from the database
-                        // We need to create a special method to set the date since the constructor uses the current date
-                        try {
-                            // Using reflection to set the data_atribuire field
-                            java.lang.reflect.Field field = Nota.class.getDeclaredField("dataAtribuire");
-                            field.setAccessible(true);
-                            field.set(nota, dataAtribuire);
-                        } catch (Exception e) {
-                            System.err.println("Error setting data_atribuire: " + e.getMessage());
-                        }
-                        note.add(nota);
-                        System.out.println("Debug - NotaRepository - Added grade to list");
-                    } else {
-                        System.out.println("Debug - NotaRepository - Student or course not found: " + 
-                                "Student present: " + studentOpt.isPresent() + 
-                                ", Course present: " + cursOpt.isPresent());
-                    }
-                }
-                System.out.println("Debug - NotaRepository.findByStudentId - Found " + count + " grades for student: " + studentId);
-            }
+        result.getSaved().forEach(nota -> writeListeners.forEach(listener -> listener.onInsert(nota)));
+        auditService.logActiune("Salvare lot note in baza de date", String.valueOf(result.getSavedCount()));
+        return result;
+    }
+
+    public List<Nota> findByStudentId(String studentId) {
+        try {
+            List<Nota> note = loadNote(" WHERE n.student_id = ?", studentId);
             
             auditService.logActiune("Cautare note dupa ID student in baza de date");
-            System.out.println("Debug - NotaRepository.findByStudentId - Returning " + note.size() + " grades");
             return note;
         } catch (SQLException e) {
             System.err.println("Error finding note by student ID: " + e.getMessage());
@@ -128,47 +131,72 @@ public class NotaRepository {
         }
     }
     
+    /**
+     * Parcurge toate notele în flux, cu cursor pe server; fluxul trebuie închis după folosire.
+     * Cursurile sunt partajate între note, iar studenții sunt construiți pentru fiecare rând
+     * (sau luați din unitatea de lucru activă), pentru ca memoria să nu crească odată cu tabela.
+     */
+    public Stream<Nota> streamAll() {
+        Map<String, Curs> cursuri = new HashMap<>();
+        Map<String, Materie> materii = new HashMap<>();
+        Map<String, Profesor> profesori = new HashMap<>();
+        Map<String, Sala> sali = new HashMap<>();
+        
+        auditService.logActiune("Parcurgere in flux note din baza de date");
+        return ResultSetStreams.stream(dbConnection, NOTA_GRAPH_SQL, rs -> new Nota(
+                RowMappers.mapStudent(rs, new HashMap<>()),
+                RowMappers.mapCurs(rs, cursuri, materii, profesori, sali),
+                rs.getDouble("valoare"),
+                rs.getDate("data_atribuire").toLocalDate()));
+    }
+    
     public List<Nota> findByStudentAndCursId(String studentId, String cursId) {
-        String sql = "SELECT * FROM note WHERE student_id = ? AND curs_id = ? ORDER BY data_atribuire";
+        try {
+            List<Nota> note = loadNote(" WHERE n.student_id = ? AND n.curs_id = ?", studentId, cursId);
+            
+            auditService.logActiune("Cautare note dupa ID student si ID curs in baza de date");
+            return note;
+        } catch (SQLException e) {
+            System.err.println("Error finding note by student and curs ID: " + e.getMessage());
+            throw new RuntimeException("Error finding note by student and curs ID", e);
+        }
+    }
+    
+    /**
+     * Încarcă notele împreună cu studentul și cursul (materie, profesor, sală) printr-o singură interogare.
+     * Studenții și cursurile care apar pe mai multe rânduri sunt partajați între note.
+     * Listele de studenți înscriși ale cursurilor nu sunt populate.
+     * @param filter Condiția WHERE aplicată notelor (alias "n")
+     * @param params Parametrii condiției
+     * @return Lista de note ordonată după data atribuirii
+     */
+    private List<Nota> loadNote(String filter, String... params) throws SQLException {
+        String sql = NOTA_GRAPH_SQL + filter + " ORDER BY n.data_atribuire";
         List<Nota> note = new ArrayList<>();
+        Map<String, Student> studenti = new HashMap<>();
+        Map<String, Curs> cursuri = new HashMap<>();
+        Map<String, Materie> materii = new HashMap<>();
+        Map<String, Profesor> profesori = new HashMap<>();
+        Map<String, Sala> sali = new HashMap<>();
         
         try (Connection conn = dbConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, studentId);
-            stmt.setString(2, cursId);
+            for (int i = 0; i < params.length; i++) {
+                stmt.setString(i + 1, params[i]);
+            }
             
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    double valoare = rs.getDouble("valoare");
-                    
-                    Optional<Student> studentOpt = studentRepository.findById(studentId);
-                    Optional<Curs> cursOpt = cursRepository.findById(cursId);
+                    Student student = RowMappers.mapStudent(rs, studenti);
+                    Curs curs = RowMappers.mapCurs(rs, cursuri, materii, profesori, sali);
+                    LocalDate dataAtribuire = rs.getDate("data_atribuire").toLocalDate();
                     
-                    if (studentOpt.isPresent() && cursOpt.isPresent()) {
-                        Nota nota = new Nota(studentOpt.get(), cursOpt.get(), valoare);
-                        // Get the date from the database
-                        LocalDate dataAtribuire = rs.getDate("data_atribuire").toLocalDate();
-                        // We need to create a special method to set the date since the constructor uses the current date
-                        try {
-                            // Using reflection to set the data_atribuire field
-                            java.lang.reflect.Field field = Nota.class.getDeclaredField("dataAtribuire");
-                            field.setAccessible(true);
-                            field.set(nota, dataAtribuire);
-                        } catch (Exception e) {
-                            System.err.println("Error setting data_atribuire: " + e.getMessage());
-                        }
-                        note.add(nota);
-                    }
+                    note.add(new Nota(student, curs, rs.getDouble("valoare"), dataAtribuire));
                 }
             }
-            
-            auditService.logActiune("Cautare note dupa ID student si ID curs in baza de date");
-            return note;
-        } catch (SQLException e) {
-            System.err.println("Error finding note by student and curs ID: " + e.getMessage());
-            throw new RuntimeException("Error finding note by student and curs ID", e);
         }
+        return note;
     }
     
     public boolean updateNota(String studentId, String cursId, double newValue) {
@@ -182,6 +210,12 @@ public class NotaRepository {
             stmt.setString(3, cursId);
             
             int affectedRows = stmt.executeUpdate();
+            // Confirmăm înainte de a anunța ascultătorii, nu abia la eliberarea conexiunii;
+            // dacă commit-ul eșuează, excepția ajunge la apelant și copiile din memorie rămân neatinse
+            conn.commit();
+            if (affectedRows > 0) {
+                writeListeners.forEach(listener -> listener.onUpdate(studentId, cursId, newValue));
+            }
             
             auditService.logActiune("Actualizare nota in baza de date");
             return affectedRows > 0;
@@ -211,6 +245,34 @@ public class NotaRepository {
         }
     }
     
+    /**
+     * Parcurge toate notele, împreună cu anul de studiu al studentului, materia, profesorul
+     * și creditele cursului.
+     * @param visitor Primește câte un apel pentru fiecare notă
+     */
+    public void forEachGradeRow(GradeRowVisitor visitor) {
+        String sql = "SELECT n.student_id, n.curs_id, n.valoare, n.data_atribuire, st.an_studiu, " +
+                "c.materie_cod, c.profesor_id, m.credite " +
+                "FROM note n " +
+                "JOIN studenti st ON st.id = n.student_id " +
+                "JOIN cursuri c ON c.id = n.curs_id " +
+                "JOIN materii m ON m.cod = c.materie_cod";
+        
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            
+            while (rs.next()) {
+                visitor.accept(rs.getString(1), rs.getString(2), rs.getDouble(3), rs.getDate(4).toLocalDate(),
+                        rs.getInt(5), rs.getString(6), rs.getString(7), rs.getInt(8));
+            }
+            auditService.logActiune("Incarcare toate notele din baza de date");
+        } catch (SQLException e) {
+            System.err.println("Error loading grade rows: " + e.getMessage());
+            throw new RuntimeException("Error loading grade rows", e);
+        }
+    }
+    
     /**
      * Verifică dacă există note pentru un anumit student
      * @param studentId ID-ul studentului
@@ -282,6 +344,9 @@ public class NotaRepository {
             // Commit transaction explicitly
             dbConnection.commitTransaction();
             
+            if (affectedRows > 0) {
+                writeListeners.forEach(listener -> listener.onDelete(studentId, null, null));
+            }
             auditService.logActiune("Stergere note pentru student din baza de date");
             return affectedRows;
         } catch (SQLException e) {
@@ -290,7 +355,7 @@ public class NotaRepository {
             System.err.println("Error deleting grades for student: " + e.getMessage());
             throw new RuntimeException("Error deleting grades for student", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -298,6 +363,13 @@ public class NotaRepository {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
     
@@ -322,6 +394,9 @@ public class NotaRepository {
             // Commit transaction explicitly
             dbConnection.commitTransaction();
             
+            if (affectedRows > 0) {
+                writeListeners.forEach(listener -> listener.onDelete(null, cursId, null));
+            }
             auditService.logActiune("Stergere note pentru curs din baza de date");
             return affectedRows;
         } catch (SQLException e) {
@@ -330,7 +405,7 @@ public class NotaRepository {
             System.err.println("Error deleting grades for course: " + e.getMessage());
             throw new RuntimeException("Error deleting grades for course", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -338,6 +413,13 @@ public class NotaRepository {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
     
@@ -370,6 +452,9 @@ public class NotaRepository {
             // Commit transaction explicitly
             dbConnection.commitTransaction();
             
+            if (affectedRows > 0) {
+                writeListeners.forEach(listener -> listener.onDelete(studentId, cursId, valoare));
+            }
             auditService.logActiune("Stergere nota specifica din baza de date");
             return affectedRows;
         } catch (SQLException e) {
@@ -378,7 +463,7 @@ public class NotaRepository {
             System.err.println("Error deleting specific grade: " + e.getMessage());
             throw new RuntimeException("Error deleting specific grade", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -386,6 +471,35 @@ public class NotaRepository {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Primește o notă, împreună cu anul de studiu al studentului, materia, profesorul și creditele cursului.
+     */
+    @FunctionalInterface
+    public interface GradeRowVisitor {
+        void accept(String studentId, String cursId, double valoare, LocalDate dataAtribuire,
+                    int anStudiu, String materieCod, String profesorId, int credite);
+    }
+    
+    /**
+     * Notificat după scrierile reușite în tabela note, pentru a ține sincronizate copiile din memorie.
+     */
+    public interface WriteListener {
+        void onInsert(Nota nota);
+        
+        /** Toate notele studentului la curs au primit valoarea nouă. */
+        void onUpdate(String studentId, String cursId, double valoareNoua);
+        
+        /** Argumentele null se potrivesc cu orice valoare (ex: toate notele unui curs). */
+        void onDelete(String studentId, String cursId, Double valoare);
+    }
+}
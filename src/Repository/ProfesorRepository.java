@@ -2,13 +2,16 @@ package Repository;
 
 import Model.Profesor;
 import Service.AuditService;
+import Service.BatchResult;
 import Service.CrudRepository;
 import Service.DatabaseConnectionSingleton;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class ProfesorRepository implements CrudRepository<Profesor, String> {
     private final DatabaseConnectionSingleton dbConnection;
@@ -41,6 +44,7 @@ public class ProfesorRepository implements CrudRepository<Profesor, String> {
             // Commit the transaction
             dbConnection.commitTransaction();
             
+            IdentityMap.track(Profesor.class, profesor.getId(), profesor);
             auditService.logActiune("Salvare profesor in baza de date");
             return profesor;
         } catch (SQLException e) {
@@ -49,7 +53,7 @@ public class ProfesorRepository implements CrudRepository<Profesor, String> {
             System.err.println("Error saving profesor: " + e.getMessage());
             throw new RuntimeException("Error saving profesor", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -57,11 +61,42 @@ public class ProfesorRepository implements CrudRepository<Profesor, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
+    /**
+     * Salvează mai mulți profesori folosind instrucțiuni în lot, câte o tranzacție pe fiecare lot.
+     * @param profesori Profesorii de salvat
+     * @return Profesorii salvați și cei respinși, cu motivul
+     */
+    @Override
+    public BatchResult<Profesor> saveAll(Collection<Profesor> profesori) {
+        String sql = "INSERT INTO profesori (id, nume, titulatura) VALUES (?, ?, ?)";
+        BatchResult<Profesor> result = BatchExecutor.insertAll(dbConnection, sql, profesori, (stmt, profesor) -> {
+            stmt.setString(1, profesor.getId());
+            stmt.setString(2, profesor.getNume());
+            stmt.setString(3, profesor.getTitulatura());
+        });
+        
+        result.getSaved().forEach(profesor -> IdentityMap.track(Profesor.class, profesor.getId(), profesor));
+        auditService.logActiune("Salvare lot profesori in baza de date", String.valueOf(result.getSavedCount()));
+        return result;
+    }
+
     @Override
     public Optional<Profesor> findById(String id) {
+        Profesor cached = IdentityMap.lookup(Profesor.class, id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
         String sql = "SELECT * FROM profesori WHERE id = ?";
         
         try (Connection conn = dbConnection.getConnection();
@@ -76,6 +111,7 @@ public class ProfesorRepository implements CrudRepository<Profesor, String> {
                             rs.getString("id"),
                             rs.getString("titulatura")
                     );
+                    profesor = IdentityMap.track(Profesor.class, profesor.getId(), profesor);
                     
                     auditService.logActiune("Cautare profesor dupa ID in baza de date");
                     return Optional.of(profesor);
@@ -103,7 +139,7 @@ public class ProfesorRepository implements CrudRepository<Profesor, String> {
                         rs.getString("id"),
                         rs.getString("titulatura")
                 );
-                profesors.add(profesor);
+                profesors.add(IdentityMap.track(Profesor.class, profesor.getId(), profesor));
             }
             
             auditService.logActiune("Listare toti profesorii din baza de date");
@@ -114,6 +150,60 @@ public class ProfesorRepository implements CrudRepository<Profesor, String> {
         }
     }
 
+    /**
+     * Parcurge toți profesorii în flux, cu cursor pe server; fluxul trebuie închis după folosire.
+     */
+    @Override
+    public Stream<Profesor> streamAll() {
+        auditService.logActiune("Parcurgere in flux profesori din baza de date");
+        return ResultSetStreams.stream(dbConnection, "SELECT * FROM profesori", rs -> {
+            Profesor profesor = new Profesor(
+                    rs.getString("nume"),
+                    rs.getString("id"),
+                    rs.getString("titulatura")
+            );
+            return IdentityMap.track(Profesor.class, profesor.getId(), profesor);
+        });
+    }
+
+    /**
+     * Returnează o pagină de profesori ordonați după ID, începând după afterId (paginare keyset).
+     * @param afterId ID-ul ultimului profesor din pagina anterioară sau null pentru prima pagină
+     * @param limit Numărul maxim de profesori din pagină
+     */
+    public List<Profesor> findPage(String afterId, int limit) {
+        String sql = afterId == null
+                ? "SELECT * FROM profesori ORDER BY id LIMIT ?"
+                : "SELECT * FROM profesori WHERE id > ? ORDER BY id LIMIT ?";
+        List<Profesor> profesors = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (afterId != null) {
+                stmt.setString(index++, afterId);
+            }
+            stmt.setInt(index, limit);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Profesor profesor = new Profesor(
+                            rs.getString("nume"),
+                            rs.getString("id"),
+                            rs.getString("titulatura")
+                    );
+                    profesors.add(IdentityMap.track(Profesor.class, profesor.getId(), profesor));
+                }
+            }
+            
+            auditService.logActiune("Listare pagina profesori din baza de date");
+            return profesors;
+        } catch (SQLException e) {
+            System.err.println("Error finding profesor page: " + e.getMessage());
+            throw new RuntimeException("Error finding profesor page", e);
+        }
+    }
+
     @Override
     public Profesor update(String id, Profesor profesor) {
         String sql = "UPDATE profesori SET nume = ?, titulatura = ? WHERE id = ?";
@@ -130,6 +220,7 @@ public class ProfesorRepository implements CrudRepository<Profesor, String> {
                 throw new SQLException("Updating profesor failed, no rows affected.");
             }
             
+            IdentityMap.trackUpdate(Profesor.class, id, profesor);
             auditService.logActiune("Actualizare profesor in baza de date");
             return profesor;
         } catch (SQLException e) {
@@ -149,6 +240,7 @@ public class ProfesorRepository implements CrudRepository<Profesor, String> {
             
             int affectedRows = stmt.executeUpdate();
             
+            IdentityMap.untrack(Profesor.class, id);
             auditService.logActiune("Stergere profesor din baza de date");
             return affectedRows > 0;
         } catch (SQLException e) {
@@ -0,0 +1,120 @@
+package Repository;
+
+import Service.DatabaseConnectionSingleton;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Transformă rezultatul unei interogări într-un Stream citit rând cu rând, cu cursor pe server:
+ * instrucțiunea este forward-only, cu fetch size db.stream.fetchSize, pe o conexiune dedicată
+ * din pool. Astfel memoria folosită nu depinde de dimensiunea tabelei, iar primul rând
+ * poate fi procesat înainte de citirea celorlalte.
+ *
+ * Resursele sunt eliberate când fluxul este parcurs complet sau la close(), deci apelanții
+ * trebuie să folosească fluxul în try-with-resources.
+ */
+final class ResultSetStreams {
+
+    /**
+     * Construiește o entitate din rândul curent al rezultatului.
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private ResultSetStreams() {}
+
+    static <T> Stream<T> stream(DatabaseConnectionSingleton dbConnection, String sql, RowMapper<T> mapper) {
+        Connection conn = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+
+        try {
+            conn = dbConnection.getDedicatedConnection();
+            // Instrucțiune necache-uită: cursorul rămâne deschis cât timp fluxul este parcurs
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(dbConnection.getFetchSize());
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            new Cursor<T>(conn, stmt, rs, mapper).close();
+            System.err.println("Error opening result stream: " + e.getMessage());
+            throw new RuntimeException("Error opening result stream", e);
+        }
+
+        Cursor<T> cursor = new Cursor<>(conn, stmt, rs, mapper);
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final Connection conn;
+        private final PreparedStatement stmt;
+        private final ResultSet rs;
+        private final RowMapper<T> mapper;
+        private boolean closed;
+
+        Cursor(Connection conn, PreparedStatement stmt, ResultSet rs, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.conn = conn;
+            this.stmt = stmt;
+            this.rs = rs;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                action.accept(mapper.map(rs));
+                return true;
+            } catch (SQLException e) {
+                close();
+                System.err.println("Error reading result stream: " + e.getMessage());
+                throw new RuntimeException("Error reading result stream", e);
+            }
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            // Close resources and return the connection to the pool
+            if (rs != null) {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing result set: " + e.getMessage());
+                }
+            }
+            if (stmt != null) {
+                try {
+                    stmt.close();
+                } catch (SQLException e) {
+                    System.err.println("Error closing statement: " + e.getMessage());
+                }
+            }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package Repository;
+
+import Model.Curs;
+import Model.Materie;
+import Model.Profesor;
+import Model.Sala;
+import Model.Student;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Fragmente SQL și funcții de mapare comune pentru interogările cu JOIN.
+ * Coloanele entităților legate sunt aliasate cu prefixul entității (ex: "materie_nume"),
+ * iar instanțele sunt partajate prin map-urile primite ca parametru și, dacă există
+ * o unitate de lucru activă, prin {@link IdentityMap}.
+ */
+final class RowMappers {
+    /** Coloanele unui curs și ale entităților referite; aliasuri: c = cursuri, m = materii, p = profesori, s = sali. */
+    static final String CURS_COLUMNS =
+            "c.id AS curs_id, c.ora_inceput, c.ora_sfarsit, " +
+            "m.cod AS materie_cod, m.nume AS materie_nume, m.credite AS materie_credite, " +
+            "p.id AS profesor_id, p.nume AS profesor_nume, p.titulatura AS profesor_titulatura, " +
+            "s.id AS sala_id, s.nume AS sala_nume, s.capacitate AS sala_capacitate, s.facilitati AS sala_facilitati";
+
+    /** JOIN-urile necesare pentru CURS_COLUMNS, pornind de la aliasul "c" al tabelei cursuri. */
+    static final String CURS_JOINS =
+            " JOIN materii m ON m.cod = c.materie_cod" +
+            " JOIN profesori p ON p.id = c.profesor_id" +
+            " JOIN sali s ON s.id = c.sala_id";
+
+    /** Coloanele unui student, pentru un alias dat al tabelei studenti. */
+    static String studentColumns(String alias) {
+        return alias + ".id AS student_id, " + alias + ".nume AS student_nume, " +
+                alias + ".email AS student_email, " + alias + ".an_studiu AS student_an_studiu";
+    }
+
+    private RowMappers() {}
+
+    /**
+     * Caută o entitate întâi în map-ul local al interogării, apoi în unitatea de lucru activă.
+     */
+    private static <T> T resolve(Class<T> type, String id, Map<String, T> local) {
+        T entity = local.get(id);
+        if (entity == null) {
+            entity = IdentityMap.lookup(type, id);
+            if (entity != null) {
+                local.put(id, entity);
+            }
+        }
+        return entity;
+    }
+
+    private static <T> T track(Class<T> type, String id, T entity, Map<String, T> local) {
+        T canonical = IdentityMap.track(type, id, entity);
+        local.put(id, canonical);
+        return canonical;
+    }
+
+    static Student mapStudent(ResultSet rs, Map<String, Student> studenti) throws SQLException {
+        String id = rs.getString("student_id");
+        Student student = resolve(Student.class, id, studenti);
+        if (student == null) {
+            student = new Student(
+                    rs.getString("student_nume"),
+                    id,
+                    rs.getString("student_email"),
+                    rs.getInt("student_an_studiu")
+            );
+            student = track(Student.class, id, student, studenti);
+        }
+        return student;
+    }
+
+    static Materie mapMaterie(ResultSet rs, Map<String, Materie> materii) throws SQLException {
+        String cod = rs.getString("materie_cod");
+        Materie materie = resolve(Materie.class, cod, materii);
+        if (materie == null) {
+            materie = new Materie(rs.getString("materie_nume"), cod, rs.getInt("materie_credite"));
+            materie = track(Materie.class, cod, materie, materii);
+        }
+        return materie;
+    }
+
+    static Profesor mapProfesor(ResultSet rs, Map<String, Profesor> profesori) throws SQLException {
+        String id = rs.getString("profesor_id");
+        Profesor profesor = resolve(Profesor.class, id, profesori);
+        if (profesor == null) {
+            profesor = new Profesor(rs.getString("profesor_nume"), id, rs.getString("profesor_titulatura"));
+            profesor = track(Profesor.class, id, profesor, profesori);
+        }
+        return profesor;
+    }
+
+    static Sala mapSala(ResultSet rs, Map<String, Sala> sali) throws SQLException {
+        String id = rs.getString("sala_id");
+        Sala sala = resolve(Sala.class, id, sali);
+        if (sala == null) {
+            sala = new Sala(
+                    id,
+                    rs.getString("sala_nume"),
+                    rs.getInt("sala_capacitate"),
+                    Arrays.asList(rs.getString("sala_facilitati").split(","))
+            );
+            sala = track(Sala.class, id, sala, sali);
+        }
+        return sala;
+    }
+
+    /**
+     * Mapează un curs dintr-un rând care conține CURS_COLUMNS, refolosind instanțele deja mapate.
+     */
+    static Curs mapCurs(ResultSet rs, Map<String, Curs> cursuri, Map<String, Materie> materii,
+                        Map<String, Profesor> profesori, Map<String, Sala> sali) throws SQLException {
+        String id = rs.getString("curs_id");
+        Curs curs = cursuri.get(id);
+        if (curs == null) {
+            curs = new Curs(
+                    id,
+                    mapMaterie(rs, materii),
+                    mapProfesor(rs, profesori),
+                    mapSala(rs, sali),
+                    rs.getTime("ora_inceput").toLocalTime(),
+                    rs.getTime("ora_sfarsit").toLocalTime()
+            );
+            cursuri.put(id, curs);
+        }
+        return curs;
+    }
+}
@@ -2,14 +2,17 @@ package Repository;
 
 import Model.Sala;
 import Service.AuditService;
+import Service.BatchResult;
 import Service.CrudRepository;
 import Service.DatabaseConnectionSingleton;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class SalaRepository implements CrudRepository<Sala, String> {
     private final DatabaseConnectionSingleton dbConnection;
@@ -43,6 +46,7 @@ public class SalaRepository implements CrudRepository<Sala, String> {
             // Commit the transaction
             dbConnection.commitTransaction();
             
+            IdentityMap.track(Sala.class, sala.getId(), sala);
             auditService.logActiune("Salvare sala in baza de date");
             return sala;
         } catch (SQLException e) {
@@ -51,7 +55,7 @@ public class SalaRepository implements CrudRepository<Sala, String> {
             System.err.println("Error saving sala: " + e.getMessage());
             throw new RuntimeException("Error saving sala", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -59,11 +63,43 @@ public class SalaRepository implements CrudRepository<Sala, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
+    /**
+     * Salvează mai multe săli folosind instrucțiuni în lot, câte o tranzacție pe fiecare lot.
+     * @param sali Sălile de salvat
+     * @return Sălile salvate și cele respinse, cu motivul
+     */
+    @Override
+    public BatchResult<Sala> saveAll(Collection<Sala> sali) {
+        String sql = "INSERT INTO sali (id, nume, capacitate, facilitati) VALUES (?, ?, ?, ?)";
+        BatchResult<Sala> result = BatchExecutor.insertAll(dbConnection, sql, sali, (stmt, sala) -> {
+            stmt.setString(1, sala.getId());
+            stmt.setString(2, sala.getNume());
+            stmt.setInt(3, sala.getCapacitate());
+            stmt.setString(4, String.join(",", sala.getFacilitati()));
+        });
+        
+        result.getSaved().forEach(sala -> IdentityMap.track(Sala.class, sala.getId(), sala));
+        auditService.logActiune("Salvare lot sali in baza de date", String.valueOf(result.getSavedCount()));
+        return result;
+    }
+
     @Override
     public Optional<Sala> findById(String id) {
+        Sala cached = IdentityMap.lookup(Sala.class, id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
         String sql = "SELECT * FROM sali WHERE id = ?";
         
         try (Connection conn = dbConnection.getConnection();
@@ -81,6 +117,7 @@ public class SalaRepository implements CrudRepository<Sala, String> {
                             rs.getInt("capacitate"),
                             facilitati
                     );
+                    sala = IdentityMap.track(Sala.class, sala.getId(), sala);
                     
                     auditService.logActiune("Cautare sala dupa ID in baza de date");
                     return Optional.of(sala);
@@ -111,7 +148,7 @@ public class SalaRepository implements CrudRepository<Sala, String> {
                         rs.getInt("capacitate"),
                         facilitati
                 );
-                sali.add(sala);
+                sali.add(IdentityMap.track(Sala.class, sala.getId(), sala));
             }
             
             auditService.logActiune("Listare toate salile din baza de date");
@@ -122,6 +159,23 @@ public class SalaRepository implements CrudRepository<Sala, String> {
         }
     }
 
+    /**
+     * Parcurge toate sălile în flux, cu cursor pe server; fluxul trebuie închis după folosire.
+     */
+    @Override
+    public Stream<Sala> streamAll() {
+        auditService.logActiune("Parcurgere in flux sali din baza de date");
+        return ResultSetStreams.stream(dbConnection, "SELECT * FROM sali", rs -> {
+            Sala sala = new Sala(
+                    rs.getString("id"),
+                    rs.getString("nume"),
+                    rs.getInt("capacitate"),
+                    Arrays.asList(rs.getString("facilitati").split(","))
+            );
+            return IdentityMap.track(Sala.class, sala.getId(), sala);
+        });
+    }
+
     @Override
     public Sala update(String id, Sala sala) {
         String sql = "UPDATE sali SET nume = ?, capacitate = ?, facilitati = ? WHERE id = ?";
@@ -139,6 +193,7 @@ public class SalaRepository implements CrudRepository<Sala, String> {
                 throw new SQLException("Updating sala failed, no rows affected.");
             }
             
+            IdentityMap.trackUpdate(Sala.class, id, sala);
             auditService.logActiune("Actualizare sala in baza de date");
             return sala;
         } catch (SQLException e) {
@@ -158,6 +213,7 @@ public class SalaRepository implements CrudRepository<Sala, String> {
             
             int affectedRows = stmt.executeUpdate();
             
+            IdentityMap.untrack(Sala.class, id);
             auditService.logActiune("Stergere sala din baza de date");
             return affectedRows > 0;
         } catch (SQLException e) {
@@ -2,13 +2,16 @@ package Repository;
 
 import Model.Student;
 import Service.AuditService;
+import Service.BatchResult;
 import Service.CrudRepository;
 import Service.DatabaseConnectionSingleton;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public class StudentRepository implements CrudRepository<Student, String> {
     private final DatabaseConnectionSingleton dbConnection;
@@ -42,6 +45,7 @@ public class StudentRepository implements CrudRepository<Student, String> {
             // Commit the transaction
             dbConnection.commitTransaction();
             
+            IdentityMap.track(Student.class, student.getId(), student);
             auditService.logActiune("Salvare student in baza de date");
             return student;
         } catch (SQLException e) {
@@ -50,7 +54,7 @@ public class StudentRepository implements CrudRepository<Student, String> {
             System.err.println("Error saving student: " + e.getMessage());
             throw new RuntimeException("Error saving student", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -58,11 +62,43 @@ public class StudentRepository implements CrudRepository<Student, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
+    /**
+     * Salvează mai mulți studenți folosind instrucțiuni în lot, câte o tranzacție pe fiecare lot.
+     * @param studenti Studenții de salvat
+     * @return Studenții salvați și cei respinși, cu motivul
+     */
+    @Override
+    public BatchResult<Student> saveAll(Collection<Student> studenti) {
+        String sql = "INSERT INTO studenti (id, nume, email, an_studiu) VALUES (?, ?, ?, ?)";
+        BatchResult<Student> result = BatchExecutor.insertAll(dbConnection, sql, studenti, (stmt, student) -> {
+            stmt.setString(1, student.getId());
+            stmt.setString(2, student.getNume());
+            stmt.setString(3, student.getEmail());
+            stmt.setInt(4, student.getAnStudiu());
+        });
+        
+        result.getSaved().forEach(student -> IdentityMap.track(Student.class, student.getId(), student));
+        auditService.logActiune("Salvare lot studenti in baza de date", String.valueOf(result.getSavedCount()));
+        return result;
+    }
+
     @Override
     public Optional<Student> findById(String id) {
+        Student cached = IdentityMap.lookup(Student.class, id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
         String sql = "SELECT * FROM studenti WHERE id = ?";
         Connection conn = null;
         PreparedStatement stmt = null;
@@ -82,6 +118,7 @@ public class StudentRepository implements CrudRepository<Student, String> {
                         rs.getString("email"),
                         rs.getInt("an_studiu")
                 );
+                student = IdentityMap.track(Student.class, student.getId(), student);
                 
                 auditService.logActiune("Cautare student dupa ID in baza de date");
                 return Optional.of(student);
@@ -91,7 +128,7 @@ public class StudentRepository implements CrudRepository<Student, String> {
             System.err.println("Error finding student by ID: " + e.getMessage());
             throw new RuntimeException("Error finding student by ID", e);
         } finally {
-            // Close resources but not the connection
+            // Close resources and return the connection to the pool
             if (rs != null) {
                 try {
                     rs.close();
@@ -106,6 +143,13 @@ public class StudentRepository implements CrudRepository<Student, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
@@ -129,7 +173,7 @@ public class StudentRepository implements CrudRepository<Student, String> {
                         rs.getString("email"),
                         rs.getInt("an_studiu")
                 );
-                students.add(student);
+                students.add(IdentityMap.track(Student.class, student.getId(), student));
             }
             
             auditService.logActiune("Listare toti studentii din baza de date");
@@ -138,7 +182,7 @@ public class StudentRepository implements CrudRepository<Student, String> {
             System.err.println("Error finding all students: " + e.getMessage());
             throw new RuntimeException("Error finding all students", e);
         } finally {
-            // Close resources but not the connection
+            // Close resources and return the connection to the pool
             if (rs != null) {
                 try {
                     rs.close();
@@ -153,6 +197,91 @@ public class StudentRepository implements CrudRepository<Student, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Parcurge toți studenții în flux, cu cursor pe server; fluxul trebuie închis după folosire.
+     */
+    @Override
+    public Stream<Student> streamAll() {
+        auditService.logActiune("Parcurgere in flux studenti din baza de date");
+        return ResultSetStreams.stream(dbConnection, "SELECT * FROM studenti", rs -> {
+            Student student = new Student(
+                    rs.getString("nume"),
+                    rs.getString("id"),
+                    rs.getString("email"),
+                    rs.getInt("an_studiu")
+            );
+            return IdentityMap.track(Student.class, student.getId(), student);
+        });
+    }
+
+    /**
+     * Returnează o pagină de studenți ordonați după ID, începând după afterId (paginare keyset).
+     * Interogarea folosește indexul cheii primare, deci costul unei pagini nu depinde de cât
+     * de departe se află ea în listă.
+     * @param afterId ID-ul ultimului student din pagina anterioară sau null pentru prima pagină
+     * @param limit Numărul maxim de studenți din pagină
+     */
+    public List<Student> findPage(String afterId, int limit) {
+        String sql = afterId == null
+                ? "SELECT * FROM studenti ORDER BY id LIMIT ?"
+                : "SELECT * FROM studenti WHERE id > ? ORDER BY id LIMIT ?";
+        List<Student> students = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (afterId != null) {
+                stmt.setString(index++, afterId);
+            }
+            stmt.setInt(index, limit);
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Student student = new Student(
+                            rs.getString("nume"),
+                            rs.getString("id"),
+                            rs.getString("email"),
+                            rs.getInt("an_studiu")
+                    );
+                    students.add(IdentityMap.track(Student.class, student.getId(), student));
+                }
+            }
+            
+            auditService.logActiune("Listare pagina studenti din baza de date");
+            return students;
+        } catch (SQLException e) {
+            System.err.println("Error finding student page: " + e.getMessage());
+            throw new RuntimeException("Error finding student page", e);
+        }
+    }
+
+    /**
+     * Returnează doar ID-urile tuturor studenților, fără a construi obiectele.
+     */
+    public List<String> findAllIds() {
+        String sql = "SELECT id FROM studenti";
+        List<String> ids = new ArrayList<>();
+        
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                ids.add(rs.getString("id"));
+            }
+            return ids;
+        } catch (SQLException e) {
+            System.err.println("Error finding student IDs: " + e.getMessage());
+            throw new RuntimeException("Error finding student IDs", e);
         }
     }
 
@@ -179,6 +308,7 @@ public class StudentRepository implements CrudRepository<Student, String> {
             // Commit the transaction
             dbConnection.commitTransaction();
             
+            IdentityMap.trackUpdate(Student.class, id, student);
             auditService.logActiune("Actualizare student in baza de date");
             return student;
         } catch (SQLException e) {
@@ -187,7 +317,7 @@ public class StudentRepository implements CrudRepository<Student, String> {
             System.err.println("Error updating student: " + e.getMessage());
             throw new RuntimeException("Error updating student", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -195,6 +325,13 @@ public class StudentRepository implements CrudRepository<Student, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 
@@ -215,6 +352,7 @@ public class StudentRepository implements CrudRepository<Student, String> {
             // Commit the transaction
             dbConnection.commitTransaction();
             
+            IdentityMap.untrack(Student.class, id);
             auditService.logActiune("Stergere student din baza de date");
             return affectedRows > 0;
         } catch (SQLException e) {
@@ -223,7 +361,7 @@ public class StudentRepository implements CrudRepository<Student, String> {
             System.err.println("Error deleting student: " + e.getMessage());
             throw new RuntimeException("Error deleting student", e);
         } finally {
-            // Don't close the connection, just the statement
+            // Close the statement and return the connection to the pool
             if (stmt != null) {
                 try {
                     stmt.close();
@@ -231,6 +369,13 @@ public class StudentRepository implements CrudRepository<Student, String> {
                     System.err.println("Error closing statement: " + e.getMessage());
                 }
             }
+            if (conn != null) {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    System.err.println("Error releasing connection: " + e.getMessage());
+                }
+            }
         }
     }
 }
\ No newline at end of file
@@ -1,21 +1,80 @@
 package Service;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.time.LocalDateTime;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Serviciu de audit asincron. Apelurile logActiune doar pun o intrare într-o coadă limitată;
+ * un fir dedicat golește coada în loturi, scrie în fișierul CSV ținut deschis și face flush
+ * la atingerea pragului de dimensiune sau de timp. La oprirea aplicației coada este golită complet.
+ *
+ * Configurare prin proprietăți de sistem:
+ * audit.file, audit.queueCapacity, audit.batchSize, audit.flushIntervalMs,
+ * audit.policy (BLOCK, DROP, SAMPLE), audit.sampleRate.
+ */
 public class AuditService {
     private static AuditService instance;
     private static final String CSV_FILE = "audit_log.csv";
-    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    /**
+     * Comportamentul la coadă plină.
+     * BLOCK - apelantul așteaptă până se eliberează loc;
+     * DROP - intrarea este ignorată;
+     * SAMPLE - peste jumătate din capacitate se păstrează doar una din sampleRate intrări, iar la coadă plină se ignoră.
+     */
+    public enum BackpressurePolicy { BLOCK, DROP, SAMPLE }
+
+    private final String csvFile;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final BackpressurePolicy policy;
+    private final int sampleRate;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicLong sampleCounter = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private FileChannel channel;
+    private long lastFlush = System.nanoTime();
 
     // Constructor privat pentru a preveni instanțierea directă
-    private AuditService() {}
+    private AuditService() {
+        this.csvFile = System.getProperty("audit.file", CSV_FILE);
+        this.queueCapacity = Integer.getInteger("audit.queueCapacity", 8192);
+        this.batchSize = Integer.getInteger("audit.batchSize", 256);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong("audit.flushIntervalMs", 1000L));
+        this.policy = BackpressurePolicy.valueOf(System.getProperty("audit.policy", "BLOCK").toUpperCase());
+        this.sampleRate = Math.max(1, Integer.getInteger("audit.sampleRate", 10));
+
+        this.writer = new Thread(this::runWriter, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "audit-shutdown"));
+    }
 
     // Metodă statică pentru a obține instanța singleton
-    public static AuditService getInstance() {
+    public static synchronized AuditService getInstance() {
         if (instance == null) {
             instance = new AuditService();
         }
@@ -27,29 +86,200 @@ public class AuditService {
      * @param numeActiune Numele acțiunii (ex: "Adăugare student").
      */
     public void logActiune(String numeActiune) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(CSV_FILE, true))) {
-            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
-            String linie = String.format("%s,%s", numeActiune, timestamp);
-            writer.write(linie);
-            writer.newLine();
-        } catch (IOException e) {
-            System.err.println("Eroare la scrierea în fișierul de audit: " + e.getMessage());
-        }
+        enqueue(new Entry(numeActiune, null, System.currentTimeMillis()));
     }
-    
+
     /**
      * Loghează o acțiune în fișierul CSV de audit, cu ID/cod specific.
      * @param numeActiune Numele acțiunii (ex: "Adăugare student").
      * @param id ID-ul sau codul entității (ex: "S1", "MAT1", etc.).
      */
     public void logActiune(String numeActiune, String id) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(CSV_FILE, true))) {
-            String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
-            String linie = String.format("%s,%s,%s", numeActiune, id, timestamp);
-            writer.write(linie);
-            writer.newLine();
+        enqueue(new Entry(numeActiune, id, System.currentTimeMillis()));
+    }
+
+    /**
+     * Scrie sincron toate intrările aflate în coadă și forțează datele pe disc.
+     */
+    public void flush() {
+        writeLock.lock();
+        try {
+            drain(Integer.MAX_VALUE);
+            flushChannel();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public long getWrittenCount() { return written.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public int getQueuedCount() { return queued.get(); }
+
+    private void enqueue(Entry entry) {
+        if (!running) {
+            // După oprire scriem direct, pentru a nu pierde intrări
+            queue.offer(entry);
+            queued.incrementAndGet();
+            flush();
+            return;
+        }
+
+        switch (policy) {
+            case DROP:
+                if (!tryReserve()) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                break;
+            case SAMPLE:
+                if (queued.get() >= queueCapacity / 2 && sampleCounter.incrementAndGet() % sampleRate != 0) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                if (!tryReserve()) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                break;
+            case BLOCK:
+            default:
+                while (!tryReserve()) {
+                    LockSupport.unpark(writer);
+                    LockSupport.parkNanos(100_000);
+                }
+                break;
+        }
+
+        queue.offer(entry);
+        if (queued.get() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private boolean tryReserve() {
+        int current;
+        do {
+            current = queued.get();
+            if (current >= queueCapacity) {
+                return false;
+            }
+        } while (!queued.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void runWriter() {
+        while (running) {
+            writeLock.lock();
+            try {
+                drain(batchSize);
+                if (System.nanoTime() - lastFlush >= flushIntervalNanos) {
+                    flushChannel();
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (queued.get() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Scrie până la maxEntries intrări din coadă într-un singur apel de scriere.
+     * Trebuie apelată cu writeLock deținut.
+     */
+    private void drain(int maxEntries) {
+        StringBuilder sb = new StringBuilder();
+        int count = 0;
+        Entry entry;
+        while (count < maxEntries && (entry = queue.poll()) != null) {
+            queued.decrementAndGet();
+            sb.append(entry.numeActiune).append(',');
+            if (entry.id != null) {
+                sb.append(entry.id).append(',');
+            }
+            TIMESTAMP_FORMATTER.formatTo(Instant.ofEpochMilli(entry.timestamp), sb);
+            sb.append(System.lineSeparator());
+            count++;
+        }
+        if (count == 0) {
+            return;
+        }
+
+        try {
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(sb.toString());
+            FileChannel fc = openChannel();
+            while (buffer.hasRemaining()) {
+                fc.write(buffer);
+            }
+            written.addAndGet(count);
         } catch (IOException e) {
+            dropped.addAndGet(count);
             System.err.println("Eroare la scrierea în fișierul de audit: " + e.getMessage());
+            closeChannel();
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null || !channel.isOpen()) {
+            channel = FileChannel.open(Paths.get(csvFile),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void flushChannel() {
+        lastFlush = System.nanoTime();
+        if (channel != null && channel.isOpen()) {
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                System.err.println("Eroare la scrierea în fișierul de audit: " + e.getMessage());
+            }
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Eroare la închiderea fișierului de audit: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    /**
+     * Oprește firul de scriere și golește complet coada.
+     */
+    private void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeLock.lock();
+        try {
+            drain(Integer.MAX_VALUE);
+            flushChannel();
+            closeChannel();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        final String numeActiune;
+        final String id;
+        final long timestamp;
+
+        Entry(String numeActiune, String id, long timestamp) {
+            this.numeActiune = numeActiune;
+            this.id = id;
+            this.timestamp = timestamp;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rezultatul unei salvări în lot: entitățile salvate și, pentru fiecare entitate respinsă, motivul eșecului.
+ * La un INSERT condiționat, entitățile pentru care condiția nu a fost îndeplinită (niciun rând inserat)
+ * sunt păstrate separat, ca ignorate, deoarece nu reprezintă o eroare a bazei de date.
+ * @param <T> - Type of the entity
+ */
+public class BatchResult<T> {
+    private final List<T> saved = new ArrayList<>();
+    private final List<Failure<T>> failures = new ArrayList<>();
+    private final List<T> skipped = new ArrayList<>();
+
+    public void addSaved(T entity) {
+        saved.add(entity);
+    }
+
+    public void addSaved(List<T> entities) {
+        saved.addAll(entities);
+    }
+
+    public void addFailure(T entity, String error) {
+        failures.add(new Failure<>(entity, error));
+    }
+
+    public void addSkipped(T entity) {
+        skipped.add(entity);
+    }
+
+    public List<T> getSaved() {
+        return Collections.unmodifiableList(saved);
+    }
+
+    public List<Failure<T>> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public List<T> getSkipped() {
+        return Collections.unmodifiableList(skipped);
+    }
+
+    public int getSavedCount() {
+        return saved.size();
+    }
+
+    public int getFailedCount() {
+        return failures.size();
+    }
+
+    public boolean isSuccess() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult[saved=" + saved.size() + ", failed=" + failures.size()
+                + (skipped.isEmpty() ? "" : ", skipped=" + skipped.size()) + "]";
+    }
+
+    /**
+     * O entitate care nu a putut fi salvată, împreună cu eroarea raportată de baza de date.
+     */
+    public static final class Failure<T> {
+        private final T entity;
+        private final String error;
+
+        Failure(T entity, String error) {
+            this.entity = entity;
+            this.error = error;
+        }
+
+        public T getEntity() { return entity; }
+        public String getError() { return error; }
+
+        @Override
+        public String toString() {
+            return entity + ": " + error;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache limitat ca număr de intrări și ca greutate totală, cu expirare după un TTL
+ * și politică de eliminare LRU (cea mai veche folosire) sau LFU (cele mai puține folosiri).
+ * Toate operațiile sunt sincronizate; încărcarea unei valori lipsă se face în afara lock-ului.
+ */
+public class BoundedCache<K, V> implements Cache<K, V> {
+
+    public enum Policy { LRU, LFU }
+
+    private final Policy policy;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToIntFunction<? super V> weigher;
+
+    // Pentru LRU ordinea de acces este ținută de LinkedHashMap; pentru LFU intrările sunt
+    // grupate după numărul de folosiri, iar în cadrul unui grup după vechime
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final TreeMap<Integer, LinkedHashSet<K>> frequencies = new TreeMap<>();
+
+    private long weight;
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * @param policy Politica de eliminare
+     * @param maxEntries Numărul maxim de intrări
+     * @param maxWeight Greutatea totală maximă (Long.MAX_VALUE pentru nelimitat)
+     * @param ttlMs Durata de viață a unei intrări în milisecunde (0 pentru fără expirare)
+     * @param weigher Funcția care calculează greutatea unei valori (ex: numărul de elemente dintr-o listă)
+     */
+    public BoundedCache(Policy policy, int maxEntries, long maxWeight, long ttlMs, ToIntFunction<? super V> weigher) {
+        if (maxEntries < 1 || maxWeight < 1 || ttlMs < 0) {
+            throw new IllegalArgumentException("Invalid cache limits: maxEntries=" + maxEntries +
+                    ", maxWeight=" + maxWeight + ", ttlMs=" + ttlMs);
+        }
+        this.policy = policy;
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.weigher = weigher;
+    }
+
+    public BoundedCache(Policy policy, int maxEntries, long ttlMs) {
+        this(policy, maxEntries, Long.MAX_VALUE, ttlMs, value -> 1);
+    }
+
+    @Override
+    public synchronized V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            remove(key);
+            expirations++;
+            misses++;
+            return null;
+        }
+        hits++;
+        touch(key, entry);
+        return entry.value;
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        if (value == null) {
+            invalidate(key);
+            return;
+        }
+        int valueWeight = Math.max(1, weigher.applyAsInt(value));
+        if (valueWeight > maxWeight) {
+            // Valoarea nu încape niciodată; nu eliminăm restul intrărilor pentru ea
+            invalidate(key);
+            return;
+        }
+        remove(key);
+
+        Entry<V> entry = new Entry<>(value, valueWeight, ttlNanos == 0 ? Long.MAX_VALUE : System.nanoTime() + ttlNanos);
+        entries.put(key, entry);
+        weight += valueWeight;
+        if (policy == Policy.LFU) {
+            frequencies.computeIfAbsent(entry.frequency, f -> new LinkedHashSet<>()).add(key);
+        }
+
+        while (entries.size() > maxEntries || weight > maxWeight) {
+            K victim = victim(key);
+            if (victim == null) {
+                break;
+            }
+            remove(victim);
+            evictions++;
+        }
+    }
+
+    @Override
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        long versionBeforeLoad;
+        synchronized (this) {
+            V cached = get(key);
+            if (cached != null) {
+                return cached;
+            }
+            versionBeforeLoad = version;
+        }
+
+        V value = loader.apply(key);
+
+        synchronized (this) {
+            // Dacă între timp a avut loc o invalidare, valoarea încărcată poate fi deja învechită
+            if (value != null && version == versionBeforeLoad) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void invalidate(K key) {
+        version++;
+        remove(key);
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        version++;
+        entries.clear();
+        frequencies.clear();
+        weight = 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, evictions, expirations, entries.size(), weight);
+    }
+
+    private void touch(K key, Entry<V> entry) {
+        if (policy == Policy.LFU) {
+            removeFrequency(key, entry.frequency);
+            entry.frequency++;
+            frequencies.computeIfAbsent(entry.frequency, f -> new LinkedHashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Alege intrarea care trebuie eliminată, alta decât cea tocmai adăugată.
+     */
+    private K victim(K justAdded) {
+        if (policy == Policy.LFU) {
+            for (LinkedHashSet<K> keys : frequencies.values()) {
+                for (K key : keys) {
+                    if (!key.equals(justAdded)) {
+                        return key;
+                    }
+                }
+            }
+            return null;
+        }
+        Iterator<K> it = entries.keySet().iterator();
+        while (it.hasNext()) {
+            K key = it.next();
+            if (!key.equals(justAdded)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            weight -= entry.weight;
+            if (policy == Policy.LFU) {
+                removeFrequency(key, entry.frequency);
+            }
+        }
+    }
+
+    private void removeFrequency(K key, int frequency) {
+        LinkedHashSet<K> keys = frequencies.get(frequency);
+        if (keys != null) {
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                frequencies.remove(frequency);
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final int weight;
+        final long expiresAt;
+        int frequency = 1;
+
+        Entry(V value, int weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Rezultatul unei înscrieri în masă: pentru fiecare pereche (student, curs) cerută,
+ * dacă înscrierea a reușit sau motivul pentru care a fost respinsă.
+ */
+public class BulkEnrollmentResult {
+
+    public enum Status {
+        ENROLLED,
+        ALREADY_ENROLLED,
+        SCHEDULE_CONFLICT,
+        COURSE_FULL,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND,
+        FAILED
+    }
+
+    private final List<Pereche> rezultate = new ArrayList<>();
+    private final Map<Status, Integer> numarPeStatus = new EnumMap<>(Status.class);
+
+    void adauga(String studentId, String cursId, Status status, String mesaj) {
+        rezultate.add(new Pereche(studentId, cursId, status, mesaj));
+        numarPeStatus.merge(status, 1, Integer::sum);
+    }
+
+    /**
+     * @return Rezultatele tuturor perechilor cerute
+     */
+    public List<Pereche> getRezultate() {
+        return Collections.unmodifiableList(rezultate);
+    }
+
+    /**
+     * @return Perechile respinse, cu motivul
+     */
+    public List<Pereche> getRespinse() {
+        return rezultate.stream()
+                .filter(pereche -> pereche.getStatus() != Status.ENROLLED)
+                .collect(Collectors.toList());
+    }
+
+    public int getNumar(Status status) {
+        return numarPeStatus.getOrDefault(status, 0);
+    }
+
+    public int getInscrise() {
+        return getNumar(Status.ENROLLED);
+    }
+
+    public int getTotal() {
+        return rezultate.size();
+    }
+
+    @Override
+    public String toString() {
+        return "BulkEnrollmentResult[total=" + rezultate.size() + ", " + numarPeStatus + "]";
+    }
+
+    /**
+     * Rezultatul unei perechi (student, curs).
+     */
+    public static final class Pereche {
+        private final String studentId;
+        private final String cursId;
+        private final Status status;
+        private final String mesaj;
+
+        Pereche(String studentId, String cursId, Status status, String mesaj) {
+            this.studentId = studentId;
+            this.cursId = cursId;
+            this.status = status;
+            this.mesaj = mesaj;
+        }
+
+        public String getStudentId() { return studentId; }
+        public String getCursId() { return cursId; }
+        public Status getStatus() { return status; }
+        public String getMesaj() { return mesaj; }
+
+        @Override
+        public String toString() {
+            return studentId + " -> " + cursId + ": " + status + (mesaj != null ? " (" + mesaj + ")" : "");
+        }
+    }
+}
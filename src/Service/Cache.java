@@ -0,0 +1,71 @@
+package Service;
+
+import java.util.function.Function;
+
+/**
+ * Cache generic folosit în fața interogărilor repetate către baza de date.
+ * @param <K> - Type of the key
+ * @param <V> - Type of the cached value
+ */
+public interface Cache<K, V> {
+    /**
+     * Returnează valoarea din cache sau null dacă lipsește ori a expirat.
+     */
+    V get(K key);
+
+    void put(K key, V value);
+
+    /**
+     * Returnează valoarea din cache sau o încarcă folosind funcția dată.
+     * Valorile null returnate de funcție nu sunt păstrate în cache.
+     */
+    V getOrLoad(K key, Function<? super K, ? extends V> loader);
+
+    void invalidate(K key);
+
+    void invalidateAll();
+
+    int size();
+
+    Stats getStats();
+
+    /**
+     * Instantaneu al contoarelor unui cache.
+     */
+    final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long expirations;
+        private final int size;
+        private final long weight;
+
+        public Stats(long hits, long misses, long evictions, long expirations, int size, long weight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.expirations = expirations;
+            this.size = size;
+            this.weight = weight;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getExpirations() { return expirations; }
+        public int getSize() { return size; }
+        public long getWeight() { return weight; }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return "Cache[size=" + size + ", weight=" + weight + ", hits=" + hits + ", misses=" + misses +
+                    String.format(", hitRate=%.2f", getHitRate()) +
+                    ", evictions=" + evictions + ", expirations=" + expirations + "]";
+        }
+    }
+}
@@ -1,19 +1,71 @@
 package Service;
 
 import Model.*;
+import Repository.IdentityMap;
+import Repository.InscriereRepository;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.time.Duration;
 import java.time.LocalTime;
 import java.util.Arrays;
 
 public class CatalogService {
-    // Colecții pentru gestionarea datelor în memorie
-    private Map<String, Student> studenti = new HashMap<>();
-    private Map<String, Materie> materii = new HashMap<>();
-    private Map<String, Profesor> profesori = new HashMap<>();
-    private Map<String, Sala> sali = new HashMap<>();
-    private Map<String, Curs> cursuri = new HashMap<>();
-    private final Set<String> iduriUnice = new HashSet<>();
+    // Colecții pentru gestionarea datelor în memorie; citirile nu folosesc blocări
+    private final Map<String, Student> studenti;
+    private final Map<String, Materie> materii = new ConcurrentHashMap<>();
+    private final Map<String, Profesor> profesori = new ConcurrentHashMap<>();
+    private final Map<String, Sala> sali = new ConcurrentHashMap<>();
+    private final Map<String, Curs> cursuri = new ConcurrentHashMap<>();
+    private final Set<String> iduriUnice = ConcurrentHashMap.newKeySet();
+    
+    // Blocări pe ID-uri de entități pentru operațiile compuse (verificare urmată de modificare)
+    private final StripedLocks blocari = new StripedLocks(64);
+    
+    // Locurile ocupate la fiecare curs, rezervate atomic înainte de înscrierea în baza de date
+    private final SeatCounters locuri = new SeatCounters();
+    
+    // Listele de așteptare ale cursurilor pline, cu pozițiile studenților
+    private final WaitlistIndex listeAsteptare = new WaitlistIndex();
+    
+    // Orarul fiecărui student, pe intervale de 15 minute, pentru detectarea conflictelor fără interogări
+    private final ScheduleBitmaps orare = new ScheduleBitmaps();
+    private final IdSequenceAllocator alocatorId = new IdSequenceAllocator(() -> iduriUnice);
+    
+    // Indexuri de intervale orare pentru verificarea rapidă a disponibilității
+    private final IntervalIndex indexProfesori = new IntervalIndex();
+    private final IntervalIndex indexSali = new IntervalIndex();
+    
+    // Toate notele, pe coloane de tablouri primitive, sincronizate cu scrierile din NotaRepository;
+    // agregatele și clasamentul de mai jos sunt derivate din el
+    private final GradeStore depozitNote = new GradeStore();
+    
+    // Suma și numărul notelor pe student și pe (student, curs), pentru medii fără interogări
+    private final GradeAggregates agregateNote = new GradeAggregates();
+    
+    // Distribuția notelor pe curs, materie, profesor sau an, recalculată doar după modificări
+    private final GradeStatistics statisticiNote = new GradeStatistics(depozitNote);
+    
+    // Clasamentul după media ponderată cu creditele, global și pe ani de studiu
+    private final RankingEngine clasament = new RankingEngine();
+    
+    // Fereastra zilnică în care se caută intervale libere pentru săli
+    private static final LocalTime INCEPUT_PROGRAM = LocalTime.of(8, 0);
+    private static final LocalTime SFARSIT_PROGRAM = LocalTime.of(20, 0);
+    
+    // Numărul de fire folosite la încărcarea în paralel a entităților independente
+    private static final int FIRE_INCARCARE = 4;
+    
+    // Modul de încărcare: eager (totul în memorie la pornire) sau lazy (la cerere, cu cache limitat)
+    private final boolean hidratareLeneasa;
     
     // Servicii pentru persistență
     public final DatabaseService dbService;
@@ -31,45 +83,185 @@ public class CatalogService {
         this.dbService = DatabaseService.getInstance();
         this.auditService = AuditService.getInstance();
         
+        // catalog.hydration=lazy: studenții sunt citiți la cerere și păstrați într-un cache LRU
+        // de cel mult catalog.cache.studenti intrări, iar listele de înscriși se încarcă la primul acces
+        this.hidratareLeneasa = "lazy".equalsIgnoreCase(System.getProperty("catalog.hydration", "eager"));
+        this.studenti = hidratareLeneasa
+                ? Collections.synchronizedMap(new LruCache<>(Integer.getInteger("catalog.cache.studenti", 10_000)))
+                : new ConcurrentHashMap<>();
+        dbService.addGradeWriteListener(depozitNote);
+        depozitNote.adaugaObservator(agregateNote);
+        depozitNote.adaugaObservator(clasament);
+        
         // Încărcăm datele din baza de date în memorie
         incarcaDateDinBD();
     }
     
     private void incarcaDateDinBD() {
-        // Încarcă studenții
-        dbService.getAllStudents().forEach(student -> {
-            studenti.put(student.getId(), student);
-            iduriUnice.add(student.getId());
-        });
-        
-        // Încarcă profesorii
-        dbService.getAllProfesors().forEach(profesor -> {
-            profesori.put(profesor.getId(), profesor);
-            iduriUnice.add(profesor.getId());
-        });
+        // O singură unitate de lucru: studenții, profesorii, materiile și sălile încărcate aici
+        // sunt aceleași instanțe la care fac referire cursurile și listele de studenți înscriși
+        IdentityMap.UnitOfWork uow = IdentityMap.begin();
+        try {
+            incarcaEntitati();
+        } finally {
+            uow.close();
+        }
         
-        // Încarcă materiile
-        dbService.getAllMaterii().forEach(materie -> {
-            materii.put(materie.getCod(), materie);
-            iduriUnice.add(materie.getCod());
-        });
+        // Dacă nu există date, populăm baza de date cu date demo
+        if (iduriUnice.isEmpty()) {
+            System.out.println("Baza de date este goală. Se populează cu date demo...");
+            populateDemoData();
+        }
+    }
+    
+    /**
+     * Golește colecțiile din memorie și le reîncarcă din baza de date (ex: după un import în lot)
+     */
+    private void reincarcaDateDinBD() {
+        studenti.clear();
+        profesori.clear();
+        materii.clear();
+        sali.clear();
+        cursuri.clear();
+        iduriUnice.clear();
+        locuri.clear();
+        listeAsteptare.clear();
+        orare.clear();
+        indexProfesori.clear();
+        indexSali.clear();
+        depozitNote.clear();
         
-        // Încarcă sălile
-        dbService.getAllSali().forEach(sala -> {
-            sali.put(sala.getId(), sala);
-            iduriUnice.add(sala.getId());
+        IdentityMap.UnitOfWork uow = IdentityMap.begin();
+        try {
+            incarcaEntitati();
+        } finally {
+            uow.close();
+        }
+    }
+    
+    /**
+     * Încarcă entitățile din baza de date în paralel: studenții, profesorii, materiile și sălile
+     * sunt interogate simultan, fiecare pe propria conexiune din pool, iar cursurile sunt încărcate
+     * după ce acestea sunt disponibile, pentru a le refolosi instanțele din identity map.
+     * La final se afișează durata totală și durata fiecărei etape.
+     */
+    private void incarcaEntitati() {
+        long start = System.nanoTime();
+        IdentityMap identityMap = IdentityMap.current();
+        Map<String, Long> durate = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(FIRE_INCARCARE, new ThreadFactory() {
+            private final AtomicInteger contor = new AtomicInteger();
+            
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "catalog-loader-" + contor.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
         });
         
-        // Încarcă cursurile
-        dbService.getAllCursuri().forEach(curs -> {
-            cursuri.put(curs.getId(), curs);
-            iduriUnice.add(curs.getId());
-        });
+        try {
+            // În modul lazy se încarcă doar ID-urile studenților
+            CompletableFuture<List<Student>> studentiF;
+            CompletableFuture<List<String>> idStudentiF;
+            if (hidratareLeneasa) {
+                studentiF = CompletableFuture.completedFuture(Collections.emptyList());
+                idStudentiF = CompletableFuture.supplyAsync(
+                        () -> incarcaEtapa(identityMap, "studenti", dbService::getAllStudentIds, durate), executor);
+            } else {
+                studentiF = CompletableFuture.supplyAsync(
+                        () -> incarcaEtapa(identityMap, "studenti", dbService::getAllStudents, durate), executor);
+                idStudentiF = studentiF.thenApply(lista -> lista.stream().map(Student::getId).collect(Collectors.toList()));
+            }
+            CompletableFuture<List<Profesor>> profesoriF = CompletableFuture.supplyAsync(
+                    () -> incarcaEtapa(identityMap, "profesori", dbService::getAllProfesors, durate), executor);
+            CompletableFuture<List<Materie>> materiiF = CompletableFuture.supplyAsync(
+                    () -> incarcaEtapa(identityMap, "materii", dbService::getAllMaterii, durate), executor);
+            CompletableFuture<List<Sala>> saliF = CompletableFuture.supplyAsync(
+                    () -> incarcaEtapa(identityMap, "sali", dbService::getAllSali, durate), executor);
+            // Numărul de înscrieri pe curs inițializează contoarele de locuri
+            CompletableFuture<Map<String, Integer>> inscrieriF = CompletableFuture.supplyAsync(
+                    () -> incarcaEtapa(identityMap, "inscrieri", dbService::countInscrieriByCurs, durate), executor);
+            // Cursurile depind de toate celelalte entități
+            Supplier<List<Curs>> incarcareCursuri = hidratareLeneasa ? dbService::getAllCursuriLazy : dbService::getAllCursuri;
+            CompletableFuture<List<Curs>> cursuriF = CompletableFuture.allOf(idStudentiF, profesoriF, materiiF, saliF)
+                    .thenApplyAsync(v -> incarcaEtapa(identityMap, "cursuri", incarcareCursuri, durate), executor);
+            // Perechile student–curs din care se construiesc orarele studenților
+            CompletableFuture<Map<String, List<String>>> orareF = CompletableFuture.supplyAsync(
+                    () -> incarcaEtapa(identityMap, "orare", dbService::getCursIdsByStudent, durate), executor);
+            CompletableFuture<Void> asteptareF = CompletableFuture.runAsync(() -> incarcaEtapa(identityMap, "asteptare", () -> {
+                listeAsteptare.incarca(dbService.getListeAsteptare());
+                return null;
+            }, durate), executor);
+            // Depozitul de note nu depinde de celelalte etape; agregatele și clasamentul se refac din el la încărcare
+            CompletableFuture<Void> noteF = CompletableFuture.runAsync(() -> incarcaEtapa(identityMap, "note", () -> {
+                depozitNote.load(dbService);
+                return null;
+            }, durate), executor);
+            
+            // Colecțiile din memorie sunt populate doar pe firul curent, pe măsură ce etapele se termină
+            studentiF.join().forEach(student -> studenti.put(student.getId(), student));
+            idStudentiF.join().forEach(this::inregistreazaId);
+            
+            profesoriF.join().forEach(profesor -> {
+                profesori.put(profesor.getId(), profesor);
+                inregistreazaId(profesor.getId());
+            });
+            
+            materiiF.join().forEach(materie -> {
+                materii.put(materie.getCod(), materie);
+                inregistreazaId(materie.getCod());
+            });
+            
+            saliF.join().forEach(sala -> {
+                sali.put(sala.getId(), sala);
+                inregistreazaId(sala.getId());
+            });
+            
+            Map<String, Integer> inscrieriPeCurs = inscrieriF.join();
+            cursuriF.join().forEach(curs -> {
+                cursuri.put(curs.getId(), curs);
+                inregistreazaId(curs.getId());
+                indexeazaCurs(curs);
+                locuri.inregistreaza(curs.getId(), curs.getSala().getCapacitate(),
+                        inscrieriPeCurs.getOrDefault(curs.getId(), 0));
+            });
+            
+            orareF.join().forEach((studentId, cursIds) -> cursIds.forEach(cursId -> {
+                Curs curs = cursuri.get(cursId);
+                if (curs != null) {
+                    orare.adauga(studentId, curs);
+                }
+            }));
+            
+            asteptareF.join();
+            noteF.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Error loading catalog data", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
         
-        // Dacă nu există date, populăm baza de date cu date demo
-        if (studenti.isEmpty() && profesori.isEmpty() && materii.isEmpty() && sali.isEmpty()) {
-            System.out.println("Baza de date este goală. Se populează cu date demo...");
-            populateDemoData();
+        System.out.println("Date încărcate în " + (System.nanoTime() - start) / 1_000_000 + " ms (" +
+                Arrays.asList("studenti", "profesori", "materii", "sali", "inscrieri", "cursuri", "orare", "asteptare", "note").stream()
+                        .map(etapa -> etapa + ": " + durate.get(etapa) + " ms")
+                        .collect(Collectors.joining(", ")) + ")");
+    }
+    
+    /**
+     * Execută o etapă de încărcare pe un fir din pool, în aceeași unitate de lucru ca firul apelant.
+     */
+    private <T> T incarcaEtapa(IdentityMap identityMap, String etapa, Supplier<T> incarcare, Map<String, Long> durate) {
+        long start = System.nanoTime();
+        IdentityMap.UnitOfWork uow = identityMap != null ? identityMap.attach() : IdentityMap.begin();
+        try {
+            return incarcare.get();
+        } finally {
+            uow.close();
+            durate.put(etapa, (System.nanoTime() - start) / 1_000_000);
         }
     }
     
@@ -242,42 +434,116 @@ public class CatalogService {
         }
     }
 
+    /**
+     * Populează baza de date cu un volum configurabil de date sintetice, salvate în lot,
+     * apoi reîncarcă datele în memorie
+     * @param nrStudenti Numărul de studenți
+     * @param nrProfesori Numărul de profesori
+     * @param nrCursuri Numărul de cursuri
+     * @param densitate Numărul mediu de cursuri la care este înscris un student
+     * @param notePerInscriere Numărul de note pentru fiecare înscriere
+     * @param seed Seed-ul generatorului; același seed produce aceleași date
+     * @return Numărul de entități generate, pe tipuri
+     */
+    public DemoDataGenerator.Rezultat populateDemoData(int nrStudenti, int nrProfesori, int nrCursuri,
+                                                       double densitate, int notePerInscriere, long seed) {
+        DemoDataGenerator generator = new DemoDataGenerator(dbService, alocatorId, seed);
+        DemoDataGenerator.Rezultat rezultat = generator.genereaza(nrStudenti, nrProfesori, nrCursuri,
+                densitate, notePerInscriere);
+        System.out.println("Date demo generate: " + rezultat);
+        
+        reincarcaDateDinBD();
+        auditService.logActiune("Generare date demo", String.valueOf(rezultat.getStudenti()));
+        return rezultat;
+    }
+
+    /**
+     * Generează următorul ID disponibil pentru un prefix (ex: "S", "CRS")
+     * @param prefix Prefixul ID-ului
+     * @return ID-ul generat
+     */
     public String genereazaIdDisponibil(String prefix) {
-        int maxNumber = iduriUnice.stream()
-                .filter(id -> id.startsWith(prefix))
-                .map(id -> {
-                    try {
-                        return Integer.parseInt(id.substring(prefix.length()));
-                    } catch (NumberFormatException e) {
-                        return 0;
-                    }
-                })
-                .max(Integer::compare)
-                .orElse(0);
-        System.out.println(maxNumber);
-        return prefix + (maxNumber + 1);
+        return alocatorId.next(prefix);
+    }
+    
+    /**
+     * Rezervă un bloc de ID-uri consecutive pentru importuri în lot
+     * @param prefix Prefixul ID-urilor
+     * @param numar Numărul de ID-uri rezervate
+     * @return ID-urile rezervate
+     */
+    public List<String> rezervaIduri(String prefix, int numar) {
+        return alocatorId.reserveRange(prefix, numar);
     }
     
-    private void valideazaId(String id) {
-        if (iduriUnice.contains(id)) {
+    private void inregistreazaId(String id) {
+        iduriUnice.add(id);
+        alocatorId.observe(id);
+    }
+    
+    /**
+     * Rezervă atomic un ID nou; dacă două fire încearcă același ID, doar unul reușește.
+     * Rezervarea trebuie anulată cu anuleazaId dacă salvarea entității eșuează.
+     */
+    private void rezervaId(String id) {
+        if (!iduriUnice.add(id)) {
             throw new IllegalArgumentException("ID-ul " + id + " există deja!");
         }
+        alocatorId.observe(id);
+    }
+    
+    private void anuleazaId(String id) {
+        iduriUnice.remove(id);
     }
 
     // Metode pentru cursuri
     public void adaugaCurs(Curs curs) {
-        if (!esteProfesorDisponibil(curs.getProfesor(), curs.getOraInceput(), curs.getOraSfarsit())) {
-            throw new IllegalArgumentException("Profesorul este ocupat în acest interval!");
-        }
-        valideazaId(curs.getId());
-        cursuri.put(curs.getId(), curs);
-        iduriUnice.add(curs.getId());
-        
-        // Salvare în baza de date
-        dbService.saveCurs(curs);
+        // Verificarea disponibilității și rezervarea intervalului se fac sub blocările profesorului
+        // și ale sălii, astfel încât două cursuri simultane nu pot ocupa același interval
+        blocari.executa(() -> {
+            if (!esteProfesorDisponibil(curs.getProfesor(), curs.getOraInceput(), curs.getOraSfarsit())) {
+                throw new IllegalArgumentException("Profesorul este ocupat în acest interval!");
+            }
+            if (!esteSalaDisponibila(curs.getSala(), curs.getOraInceput(), curs.getOraSfarsit())) {
+                throw new IllegalArgumentException("Sala este ocupată în acest interval!");
+            }
+            rezervaId(curs.getId());
+            cursuri.put(curs.getId(), curs);
+            indexeazaCurs(curs);
+            locuri.inregistreaza(curs.getId(), curs.getSala().getCapacitate(), curs.getStudentiInscrisi().size());
+            
+            // Salvare în baza de date
+            try {
+                dbService.saveCurs(curs);
+            } catch (RuntimeException e) {
+                cursuri.remove(curs.getId());
+                deindexeazaCurs(curs);
+                locuri.elimina(curs.getId());
+                anuleazaId(curs.getId());
+                throw e;
+            }
+        }, "P:" + curs.getProfesor().getId(), "R:" + curs.getSala().getId(), "M:" + curs.getMaterie().getCod());
         auditService.logActiune("Adaugare curs", curs.getId());
     }
 
+    /**
+     * Adaugă intervalul orar al cursului în indexurile profesorului și sălii
+     * @param curs Cursul care se indexează
+     */
+    private void indexeazaCurs(Curs curs) {
+        indexProfesori.add(curs.getProfesor().getId(), curs.getId(), curs.getOraInceput(), curs.getOraSfarsit());
+        indexSali.add(curs.getSala().getId(), curs.getId(), curs.getOraInceput(), curs.getOraSfarsit());
+    }
+    
+    /**
+     * Elimină intervalul orar al cursului din indexurile profesorului și sălii
+     * @param curs Cursul care se elimină din indexuri
+     */
+    private void deindexeazaCurs(Curs curs) {
+        indexProfesori.remove(curs.getProfesor().getId(), curs.getId());
+        indexSali.remove(curs.getSala().getId(), curs.getId());
+    }
+
     /**
      * Verifică dacă un profesor este disponibil într-un interval orar specificat
      * @param profesor Profesorul care trebuie verificat
@@ -286,9 +552,7 @@ public class CatalogService {
      * @return true dacă profesorul este disponibil, false altfel
      */
     public boolean esteProfesorDisponibil(Profesor profesor, LocalTime start, LocalTime end) {
-        return cursuri.values().stream()
-                .filter(c -> c.getProfesor().getId().equals(profesor.getId()))
-                .noneMatch(c -> c.getOraInceput().isBefore(end) && c.getOraSfarsit().isAfter(start));
+        return !indexProfesori.overlaps(profesor.getId(), start, end);
     }
     
     /**
@@ -299,10 +563,20 @@ public class CatalogService {
      * @return true dacă sala este disponibilă, false altfel
      */
     public boolean esteSalaDisponibila(Sala sala, LocalTime start, LocalTime end) {
-        // Verificăm dacă există cursuri în acea sală în intervalul specificat
-        return cursuri.values().stream()
-                .filter(c -> c.getSala().getId().equals(sala.getId()))
-                .noneMatch(c -> c.getOraInceput().isBefore(end) && c.getOraSfarsit().isAfter(start));
+        return !indexSali.overlaps(sala.getId(), start, end);
+    }
+    
+    /**
+     * Returnează intervalele libere ale unei săli într-o fereastră orară
+     * @param salaId ID-ul sălii
+     * @param start Începutul ferestrei
+     * @param end Sfârșitul ferestrei
+     * @param durataMinima Durata minimă a unui interval liber
+     * @return Lista intervalelor libere, ordonate crescător
+     */
+    public List<IntervalIndex.Interval> getIntervaleLibereSala(String salaId, LocalTime start, LocalTime end,
+                                                               Duration durataMinima) {
+        return indexSali.freeSlots(salaId, start, end, durataMinima);
     }
     
     /**
@@ -312,28 +586,9 @@ public class CatalogService {
      * @return true dacă există conflict de orar, false altfel
      */
     public boolean areConflictOrarStudent(Student student, Curs cursNou) {
-        // Obținem cursurile direct din baza de date pentru a asigura cea mai recentă stare
-        List<Curs> cursuriStudent = dbService.getCursuriByStudent(student.getId());
-        
-        // Verificăm dacă există conflict de orar cu oricare din cursurile existente
-        boolean hasConflict = cursuriStudent.stream()
-                .anyMatch(cursExistent -> {
-                    // Un conflict există dacă:
-                    // 1. Începutul cursului existent este înainte de sfârșitul cursului nou ȘI
-                    // 2. Sfârșitul cursului existent este după începutul cursului nou
-                    boolean timeOverlap = cursExistent.getOraInceput().isBefore(cursNou.getOraSfarsit()) && 
-                                         cursExistent.getOraSfarsit().isAfter(cursNou.getOraInceput());
-                    
-                    // Nu consideram conflict dacă este același curs
-                    boolean isSameCourse = cursExistent.getId().equals(cursNou.getId());
-                    
-                    return timeOverlap && !isSameCourse;
-                });
-        
-        // Logăm verificarea pentru audit
-        auditService.logActiune("Verificare conflict orar student");
-        
-        return hasConflict;
+        // Orarul studentului este ținut la zi la fiecare înscriere și retragere; verificarea este
+        // o citire din memorie, pe calea fiecărei înscrieri, și nu se scrie în jurnalul de audit
+        return orare.areConflict(student.getId(), cursNou);
     }
     
     /**
@@ -342,7 +597,14 @@ public class CatalogService {
      * @return true dacă sala are suficientă capacitate, false altfel
      */
     public boolean areSalaCapacitate(Curs curs) {
-        return curs.getSala().getCapacitate() > curs.getStudentiInscrisi().size();
+        return locuri.getLibere(curs.getId()) > 0;
+    }
+    
+    /**
+     * @return Numărul de locuri ocupate la curs, după contorul din memorie, sau 0 dacă cursul nu este cunoscut
+     */
+    public int getLocuriOcupate(String cursId) {
+        return locuri.getOcupate(cursId);
     }
     
     /**
@@ -357,32 +619,60 @@ public class CatalogService {
 
     // Metode pentru studenți
     public void adaugaStudent(Student student) {
-        valideazaId(student.getId());
+        rezervaId(student.getId());
         
         // Salvare în baza de date FIRST
-        Student savedStudent = dbService.saveStudent(student);
+        Student savedStudent;
+        try {
+            savedStudent = dbService.saveStudent(student);
+        } catch (RuntimeException e) {
+            anuleazaId(student.getId());
+            throw e;
+        }
         
         // Only after successful DB save, add to in-memory collections
         studenti.put(savedStudent.getId(), savedStudent);
-        iduriUnice.add(savedStudent.getId());
         
         auditService.logActiune("Adaugare student", student.getId());
     }
     
     public void adaugaSala(Sala sala) {
-        valideazaId(sala.getId());
+        rezervaId(sala.getId());
         sali.put(sala.getId(), sala);
-        iduriUnice.add(sala.getId());
         
         // Salvare în baza de date
-        dbService.saveSala(sala);
+        try {
+            dbService.saveSala(sala);
+        } catch (RuntimeException e) {
+            sali.remove(sala.getId());
+            anuleazaId(sala.getId());
+            throw e;
+        }
         auditService.logActiune("Adaugare sala", sala.getId());
     }
 
+    /**
+     * Returnează toți studenții. În modul lazy cache-ul conține doar o parte din studenți, deci lista
+     * este citită integral din baza de date; pentru volume mari folosiți getPaginaStudenti sau streamStudenti.
+     */
     public List<Student> getStudenti() {
+        if (hidratareLeneasa) {
+            return dbService.getAllStudents();
+        }
         return new ArrayList<>(studenti.values());
     }
 
+    /**
+     * Parcurge toți studenții fără a-i ține în memorie în modul lazy (cursor în baza de date).
+     * Fluxul trebuie închis, de preferință în try-with-resources.
+     */
+    public Stream<Student> streamStudenti() {
+        if (hidratareLeneasa) {
+            return dbService.streamStudents();
+        }
+        return new ArrayList<>(studenti.values()).stream();
+    }
+
     public Optional<Student> getStudent(String studentId) {
         // Always try to get from database first to ensure we have the latest version
         Optional<Student> studentOpt = dbService.getStudent(studentId);
@@ -391,7 +681,7 @@ public class CatalogService {
             // Update the in-memory cache with the data from the database
             Student student = studentOpt.get();
             studenti.put(student.getId(), student);
-            iduriUnice.add(student.getId());
+            inregistreazaId(student.getId());
             return studentOpt;
         } else if (studenti.containsKey(studentId)) {
             // If not in DB but in memory, something's wrong - remove from memory
@@ -411,7 +701,7 @@ public class CatalogService {
             Optional<Sala> salaOpt = dbService.getSala(salaId);
             salaOpt.ifPresent(sala -> {
                 sali.put(sala.getId(), sala);
-                iduriUnice.add(sala.getId());
+                inregistreazaId(sala.getId());
             });
             return salaOpt;
         }
@@ -449,14 +739,17 @@ public class CatalogService {
 
     // Metode pentru materii
     public void adaugaMaterie(Materie materie) {
-        if (materii.containsKey(materie.getCod())) {
+        if (materii.putIfAbsent(materie.getCod(), materie) != null) {
             throw new IllegalArgumentException("Materia cu codul " + materie.getCod() + " există deja!");
         }
-
-        materii.put(materie.getCod(), materie);
         
         // Salvare în baza de date
-        dbService.saveMaterie(materie);
+        try {
+            dbService.saveMaterie(materie);
+        } catch (RuntimeException e) {
+            materii.remove(materie.getCod());
+            throw e;
+        }
         auditService.logActiune("Adaugare materie", materie.getCod());
     }
 
@@ -472,14 +765,18 @@ public class CatalogService {
     }
 
     public Optional<Curs> getCurs(String codCurs) {
-        if (cursuri.containsKey(codCurs)) {
-            return Optional.of(cursuri.get(codCurs));
+        // O singură citire: cursul poate fi șters între containsKey și get
+        Curs existent = cursuri.get(codCurs);
+        if (existent != null) {
+            return Optional.of(existent);
         } else {
             // Încercăm să luăm din baza de date dacă nu există în memorie
             Optional<Curs> cursOpt = dbService.getCurs(codCurs);
             cursOpt.ifPresent(curs -> {
                 cursuri.put(curs.getId(), curs);
-                iduriUnice.add(curs.getId());
+                inregistreazaId(curs.getId());
+                indexeazaCurs(curs);
+                locuri.inregistreaza(curs.getId(), curs.getSala().getCapacitate(), curs.getStudentiInscrisi().size());
             });
             return cursOpt;
         }
@@ -511,14 +808,44 @@ public class CatalogService {
         return new ArrayList<>(sali.values());
     }
 
+    /**
+     * Paginare keyset direct din baza de date: fiecare pagină este o singură interogare pe
+     * indexul cheii primare, indiferent de numărul paginii.
+     * @param afterId ID-ul ultimului element din pagina anterioară sau null pentru prima pagină
+     * @param limit Numărul maxim de elemente din pagină
+     * @return Studenții din pagină, în ordinea ID-urilor
+     */
+    public List<Student> getPaginaStudenti(String afterId, int limit) {
+        return dbService.getStudentsPage(afterId, limit);
+    }
+
+    /**
+     * @return Profesorii din pagina de după afterId, în ordinea ID-urilor
+     */
+    public List<Profesor> getPaginaProfesori(String afterId, int limit) {
+        return dbService.getProfesorsPage(afterId, limit);
+    }
+
+    /**
+     * @return Cursurile din pagina de după afterId, în ordinea ID-urilor, cu studenții înscriși
+     */
+    public List<Curs> getPaginaCursuri(String afterId, int limit) {
+        return dbService.getCursuriPage(afterId, limit);
+    }
+
     // Metode pentru profesori
     public void adaugaProfesor(Profesor profesor) {
-        valideazaId(profesor.getId());
+        rezervaId(profesor.getId());
         profesori.put(profesor.getId(), profesor);
-        iduriUnice.add(profesor.getId());
         
         // Salvare în baza de date
-        dbService.saveProfesor(profesor);
+        try {
+            dbService.saveProfesor(profesor);
+        } catch (RuntimeException e) {
+            profesori.remove(profesor.getId());
+            anuleazaId(profesor.getId());
+            throw e;
+        }
         auditService.logActiune("Adaugare profesor", profesor.getId());
     }
 
@@ -530,7 +857,7 @@ public class CatalogService {
             Optional<Profesor> profesorOpt = dbService.getProfesor(profesorId);
             profesorOpt.ifPresent(profesor -> {
                 profesori.put(profesor.getId(), profesor);
-                iduriUnice.add(profesor.getId());
+                inregistreazaId(profesor.getId());
             });
             return profesorOpt;
         }
@@ -602,6 +929,13 @@ public class CatalogService {
                         System.out.println("Total cursuri: " + cursuriInSala.size());
                     }
                     
+                    List<IntervalIndex.Interval> libere = getIntervaleLibereSala(
+                            salaId, INCEPUT_PROGRAM, SFARSIT_PROGRAM, Duration.ofMinutes(30));
+                    System.out.println("\nIntervale libere (" + INCEPUT_PROGRAM + " - " + SFARSIT_PROGRAM + "): " +
+                            (libere.isEmpty() ? "niciunul" : libere.stream()
+                                    .map(IntervalIndex.Interval::toString)
+                                    .collect(Collectors.joining(", "))));
+                    
                     auditService.logActiune("Afisare orar sala", salaId);
                 },
                 () -> System.out.println("Sala cu ID-ul " + salaId + " nu există!")
@@ -650,36 +984,319 @@ public class CatalogService {
         Curs curs = getCurs(codCurs)
                 .orElseThrow(() -> new IllegalArgumentException("Materie inexistentă!"));
         
-        // Verificăm dacă studentul este deja înscris
-        if (dbService.isStudentEnrolled(studentId, codCurs)) {
-            throw new IllegalArgumentException("Studentul este deja înscris la acest curs!");
+        // Locul se rezervă atomic în memorie; când cursul este plin cererea este respinsă fără interogări
+        if (!locuri.rezerva(codCurs)) {
+            throw new IllegalArgumentException("Sala nu are suficientă capacitate pentru încă un student!");
         }
         
+        // Baza de date verifică din nou capacitatea și unicitatea în aceeași tranzacție cu INSERT-ul,
+        // blocând doar rândul cursului; blocările studentului și cursului serializează înscrierea
+        // cu retragerile și cu ștergerea cursului, ca lista de înscriși și contorul să rămână egale
         Inscriere inscriere = new Inscriere(student, curs);
-        student.adaugaInscriere(inscriere);
-        curs.inscriereStudent(student);
+        InscriereRepository.SaveStatus status;
+        try {
+            status = blocari.calculeaza(() -> {
+                // Studentul poate fi șters între citirea de mai sus și blocare; INSERT-ul ar încălca cheia străină
+                if (!getStudent(studentId).isPresent()) {
+                    throw new IllegalArgumentException("Student inexistent!");
+                }
+                // Orarul studentului se schimbă doar sub blocarea lui, deci verificarea rămâne valabilă până la INSERT
+                if (orare.areConflict(studentId, curs)) {
+                    throw new IllegalArgumentException("Studentul are deja un curs în acest interval orar!");
+                }
+                InscriereRepository.SaveStatus rezultat = dbService.saveInscriereWithinCapacity(inscriere);
+                if (rezultat == InscriereRepository.SaveStatus.SAVED) {
+                    student.adaugaInscriere(inscriere);
+                    curs.inscriereStudent(student);
+                    orare.adauga(studentId, curs);
+                }
+                return rezultat;
+            }, "S:" + studentId, "C:" + codCurs);
+        } catch (RuntimeException e) {
+            locuri.elibereaza(codCurs);
+            throw e;
+        }
         
-        // Salvăm în baza de date
-        dbService.saveInscriere(inscriere);
+        if (status != InscriereRepository.SaveStatus.SAVED) {
+            locuri.elibereaza(codCurs);
+            switch (status) {
+                case ALREADY_ENROLLED:
+                    throw new IllegalArgumentException("Studentul este deja înscris la acest curs!");
+                case COURSE_FULL:
+                    throw new IllegalArgumentException("Sala nu are suficientă capacitate pentru încă un student!");
+                default:
+                    throw new IllegalArgumentException("Materie inexistentă!");
+            }
+        }
+        
+        // Un student înscris direct nu mai are nevoie de locul de pe lista de așteptare
+        if (listeAsteptare.getPozitie(codCurs, studentId) > 0) {
+            renuntaListaAsteptare(studentId, codCurs);
+        }
         auditService.logActiune("Inscriere student la materie", studentId + " la " + codCurs);
     }
 
+    /**
+     * Înscrie fiecare student dat la fiecare curs dat (de exemplu un an de studiu la cursurile lui obligatorii).
+     * Înscrierile existente și conflictele de orar se verifică în memorie, pe orarele studenților, iar locurile
+     * se rezervă din contoarele cursurilor, sub blocările studenților și ale cursurilor. Blocările studenților se eliberează
+     * apoi, iar perechile acceptate se salvează în loturi JDBC ținând doar blocările cursurilor; fiecare lot
+     * blochează rândurile cursurilor lui și inserează o pereche doar dacă sala mai are loc în baza de date,
+     * deci capacitatea este respectată și față de înscrierile făcute direct în tabelă.
+     * @return Rezultatul fiecărei perechi (student, curs)
+     */
+    public BulkEnrollmentResult inscriereInMasa(Collection<String> studentIds, Collection<String> cursIds) {
+        Set<String> idStudenti = new LinkedHashSet<>(studentIds);
+        Map<String, Curs> cursuriCerute = new LinkedHashMap<>();
+        for (String cursId : new LinkedHashSet<>(cursIds)) {
+            cursuriCerute.put(cursId, getCurs(cursId).orElse(null));
+        }
+        
+        BulkEnrollmentResult rezultat = new BulkEnrollmentResult();
+        List<String> cheiStudenti = idStudenti.stream().map(id -> "S:" + id).collect(Collectors.toList());
+        List<String> cheiCursuri = cursuriCerute.keySet().stream().map(id -> "C:" + id).collect(Collectors.toList());
+        List<Inscriere> salvate = blocari.calculeazaInEtape(cheiStudenti, cheiCursuri,
+                () -> rezervaLot(idStudenti, cursuriCerute, rezultat),
+                rezervate -> salveazaLot(rezervate, rezultat));
+        
+        // Studenții înscriși nu mai au nevoie de locul de pe lista de așteptare
+        for (Inscriere inscriere : salvate) {
+            String studentId = inscriere.getStudent().getId();
+            String cursId = inscriere.getCurs().getId();
+            if (listeAsteptare.getPozitie(cursId, studentId) > 0) {
+                renuntaListaAsteptare(studentId, cursId);
+            }
+        }
+        
+        auditService.logActiune("Inscriere in masa", rezultat.toString());
+        return rezultat;
+    }
+    
+    /**
+     * Verifică perechile cerute și rezervă, pentru cele acceptate, locul la curs și intervalul din orar.
+     * Orarul rezervat îl ține pe student ocupat în acel interval, iar deleteStudent blochează și cursurile
+     * din el, deci rezervarea rămâne valabilă după eliberarea blocării studentului.
+     */
+    private List<Inscriere> rezervaLot(Set<String> idStudenti, Map<String, Curs> cursuriCerute, BulkEnrollmentResult rezultat) {
+        List<Inscriere> deSalvat = new ArrayList<>();
+        
+        for (String studentId : idStudenti) {
+            Optional<Student> studentOpt = getStudent(studentId);
+            if (!studentOpt.isPresent()) {
+                cursuriCerute.keySet().forEach(cursId ->
+                        rezultat.adauga(studentId, cursId, BulkEnrollmentResult.Status.STUDENT_NOT_FOUND, null));
+                continue;
+            }
+            Student student = studentOpt.get();
+            
+            // Orarul conține toate cursurile studentului, deci și înscrierile existente
+            Set<String> inscris = orare.getCursuri(studentId);
+            
+            for (Map.Entry<String, Curs> cerut : cursuriCerute.entrySet()) {
+                String cursId = cerut.getKey();
+                Curs curs = cerut.getValue();
+                if (curs == null) {
+                    rezultat.adauga(studentId, cursId, BulkEnrollmentResult.Status.COURSE_NOT_FOUND, null);
+                } else if (inscris.contains(cursId)) {
+                    rezultat.adauga(studentId, cursId, BulkEnrollmentResult.Status.ALREADY_ENROLLED, null);
+                } else if (orare.areConflict(studentId, curs)) {
+                    rezultat.adauga(studentId, cursId, BulkEnrollmentResult.Status.SCHEDULE_CONFLICT, null);
+                } else if (!locuri.rezerva(cursId)) {
+                    rezultat.adauga(studentId, cursId, BulkEnrollmentResult.Status.COURSE_FULL, null);
+                } else {
+                    // Cursul intră în orar imediat, ca să fie văzut de cursurile următoare din lot
+                    deSalvat.add(new Inscriere(student, curs));
+                    inscris.add(cursId);
+                    orare.adauga(studentId, curs);
+                }
+            }
+        }
+        
+        return deSalvat;
+    }
+    
+    /**
+     * Salvează perechile rezervate și le actualizează în memorie; rezervarea perechilor nesalvate se anulează.
+     */
+    private List<Inscriere> salveazaLot(List<Inscriere> deSalvat, BulkEnrollmentResult rezultat) {
+        if (deSalvat.isEmpty()) {
+            return deSalvat;
+        }
+        
+        BatchResult<Inscriere> salvare;
+        try {
+            salvare = dbService.saveInscrieriWithinCapacity(deSalvat);
+        } catch (RuntimeException e) {
+            // Lotul aruncă doar dacă nu a obținut conexiunea, deci nicio înscriere nu a ajuns în baza de date;
+            // după prima bucată confirmată, erorile apar ca eșecuri în rezultat
+            deSalvat.forEach(inscriere -> {
+                locuri.elibereaza(inscriere.getCurs().getId());
+                orare.elimina(inscriere.getStudent().getId(), inscriere.getCurs().getId());
+            });
+            throw e;
+        }
+        
+        for (Inscriere inscriere : salvare.getSaved()) {
+            inscriere.getStudent().adaugaInscriere(inscriere);
+            inscriere.getCurs().inscriereStudent(inscriere.getStudent());
+            rezultat.adauga(inscriere.getStudent().getId(), inscriere.getCurs().getId(),
+                    BulkEnrollmentResult.Status.ENROLLED, null);
+        }
+        for (Inscriere inscriere : salvare.getSkipped()) {
+            locuri.elibereaza(inscriere.getCurs().getId());
+            orare.elimina(inscriere.getStudent().getId(), inscriere.getCurs().getId());
+            rezultat.adauga(inscriere.getStudent().getId(), inscriere.getCurs().getId(),
+                    BulkEnrollmentResult.Status.COURSE_FULL, null);
+        }
+        for (BatchResult.Failure<Inscriere> esec : salvare.getFailures()) {
+            Inscriere inscriere = esec.getEntity();
+            locuri.elibereaza(inscriere.getCurs().getId());
+            orare.elimina(inscriere.getStudent().getId(), inscriere.getCurs().getId());
+            rezultat.adauga(inscriere.getStudent().getId(), inscriere.getCurs().getId(),
+                    BulkEnrollmentResult.Status.FAILED, esec.getError());
+        }
+        return salvare.getSaved();
+    }
+    
+    /**
+     * Retrage un student de la un curs. Locul eliberat trece, în aceeași tranzacție, la primul
+     * student de pe lista de așteptare a cursului, dacă există unul.
+     * @return true dacă studentul era înscris
+     */
+    public boolean dezinscriereStudent(String studentId, String cursId) {
+        return blocari.calculeazaCuChei(() -> cheiRetragere(studentId, cursId), () -> dezinscrie(studentId, cursId));
+    }
+    
+    /**
+     * Cheile blocate la retragerea unui student de la un curs: studentul, cursul al cărui loc se eliberează,
+     * lista lui de așteptare și toți studenții de pe ea, dintre care unul poate primi locul.
+     */
+    private List<String> cheiRetragere(String studentId, String cursId) {
+        List<String> chei = new ArrayList<>(Arrays.asList("S:" + studentId, "C:" + cursId, "W:" + cursId));
+        listeAsteptare.getLista(cursId).forEach(asteptare -> chei.add("S:" + asteptare));
+        return chei;
+    }
+    
+    /**
+     * Primul student de pe lista de așteptare care poate primi un loc eliberat la curs: nu este deja
+     * înscris și nu are alt curs în același interval orar. Cei cu conflict rămân pe listă, în ordine.
+     * @return ID-ul studentului sau null dacă nimeni de pe listă nu poate primi locul
+     */
+    private String urmatorulDePeListaAsteptare(Curs curs) {
+        for (String studentId : listeAsteptare.getLista(curs.getId())) {
+            if (!orare.areConflict(studentId, curs) && !dbService.isStudentEnrolled(studentId, curs.getId())) {
+                return studentId;
+            }
+        }
+        return null;
+    }
+    
+    private boolean dezinscrie(String studentId, String cursId) {
+        // Lista de așteptare și studenții de pe ea sunt blocați de apelant, deci cel ales aici primește locul
+        Curs curs = cursuri.get(cursId);
+        String candidat = curs != null ? urmatorulDePeListaAsteptare(curs) : null;
+        InscriereRepository.DeleteResult rezultat = dbService.deleteInscriere(studentId, cursId, candidat);
+        if (!rezultat.isDeleted()) {
+            return false;
+        }
+        
+        if (curs != null) {
+            curs.dezinscriereStudent(studentId);
+        }
+        orare.elimina(studentId, cursId);
+        
+        String promovat = rezultat.getPromotedStudentId();
+        if (promovat == null) {
+            locuri.elibereaza(cursId);
+        } else {
+            // Locul rămâne ocupat, de studentul promovat, înscris în memorie la fel ca la o înscriere directă
+            listeAsteptare.elimina(cursId, promovat);
+            getStudent(promovat).ifPresent(student -> {
+                student.adaugaInscriere(new Inscriere(student, curs));
+                curs.inscriereStudent(student);
+            });
+            orare.adauga(promovat, curs);
+            auditService.logActiune("Inscriere de pe lista de asteptare", promovat + " la " + cursId);
+        }
+        
+        auditService.logActiune("Retragere student de la curs", studentId + " de la " + cursId);
+        return true;
+    }
+    
+    /**
+     * Adaugă studentul la sfârșitul listei de așteptare a unui curs plin.
+     * @return Poziția studentului pe listă (numerotată de la 1)
+     */
+    public int inscrieInListaAsteptare(String studentId, String cursId) {
+        // Sub blocarea listei cursului, ordinea din baza de date și cea din index sunt aceleași;
+        // blocările studentului și cursului țin verificările valabile până la INSERT (nu pot fi șterși între timp)
+        int pozitie = blocari.calculeaza(() -> {
+            getStudent(studentId).orElseThrow(() -> new IllegalArgumentException("Student inexistent!"));
+            getCurs(cursId).orElseThrow(() -> new IllegalArgumentException("Curs inexistent!"));
+            
+            if (dbService.isStudentEnrolled(studentId, cursId)) {
+                throw new IllegalArgumentException("Studentul este deja înscris la acest curs!");
+            }
+            if (locuri.getLibere(cursId) > 0) {
+                throw new IllegalArgumentException("Cursul are locuri libere; studentul se poate înscrie direct!");
+            }
+            
+            if (!dbService.saveListaAsteptare(studentId, cursId)) {
+                throw new IllegalArgumentException("Studentul este deja pe lista de așteptare (poziția "
+                        + listeAsteptare.getPozitie(cursId, studentId) + ")!");
+            }
+            return listeAsteptare.adauga(cursId, studentId);
+        }, "S:" + studentId, "C:" + cursId, "W:" + cursId);
+        
+        auditService.logActiune("Adaugare pe lista de asteptare", studentId + " la " + cursId);
+        return pozitie;
+    }
+    
+    /**
+     * Scoate studentul de pe lista de așteptare a cursului.
+     * @return true dacă studentul era pe listă
+     */
+    public boolean renuntaListaAsteptare(String studentId, String cursId) {
+        return blocari.calculeaza(() -> {
+            boolean sters = dbService.deleteListaAsteptare(studentId, cursId);
+            listeAsteptare.elimina(cursId, studentId);
+            return sters;
+        }, "W:" + cursId);
+    }
+    
+    /**
+     * @return Poziția studentului pe lista de așteptare a cursului (de la 1) sau 0 dacă nu este pe listă
+     */
+    public int getPozitieListaAsteptare(String studentId, String cursId) {
+        return listeAsteptare.getPozitie(cursId, studentId);
+    }
+    
+    /**
+     * @return Numărul de studenți care așteaptă un loc la curs
+     */
+    public int getLungimeListaAsteptare(String cursId) {
+        return listeAsteptare.getLungime(cursId);
+    }
+
     public void adaugaNota(String studentId, String codCurs, double notaValoare) {
         Student student = getStudent(studentId)
                 .orElseThrow(() -> new IllegalArgumentException("Student inexistent!"));
         Curs curs = getCurs(codCurs)
                 .orElseThrow(() -> new IllegalArgumentException("Materie inexistentă!"));
         
-        // Verificăm dacă studentul este înscris la curs
-        if (!dbService.isStudentEnrolled(studentId, codCurs)) {
-            throw new IllegalArgumentException("Studentul nu este înscris la acest curs!");
-        }
-        
-        Nota nota = new Nota(student, curs, notaValoare);
-        student.adaugaNota(nota);
-        
-        // Salvăm în baza de date
-        dbService.saveNota(nota);
+        // Sub blocarea studentului nota nu se poate intercala cu ștergerea lui
+        blocari.executa(() -> {
+            // Verificăm dacă studentul este înscris la curs
+            if (!dbService.isStudentEnrolled(studentId, codCurs)) {
+                throw new IllegalArgumentException("Studentul nu este înscris la acest curs!");
+            }
+            
+            Nota nota = new Nota(student, curs, notaValoare);
+            student.adaugaNota(nota);
+            
+            // Salvăm în baza de date
+            dbService.saveNota(nota);
+        }, "S:" + studentId);
         auditService.logActiune("Adaugare nota", studentId + " la " + codCurs + " nota " + notaValoare);
     }
 
@@ -689,11 +1306,112 @@ public class CatalogService {
             throw new IllegalArgumentException("Student inexistent!");
         }
         
-        // Calculăm media folosind baza de date
-        double medie = dbService.getMedieStudent(studentId);
+        // Media vine din agregatele din memorie, fără interogare în baza de date
+        double medie = agregateNote.getMedie(studentId);
         auditService.logActiune("Calcul medie student", studentId);
         return medie;
     }
+    
+    /**
+     * @return Media studentului la un curs sau 0 dacă nu are note la acel curs
+     */
+    public double getMedieStudent(String studentId, String cursId) {
+        return agregateNote.getMedie(studentId, cursId);
+    }
+    
+    /**
+     * Modifică valoarea notelor unui student la un curs
+     * @return true dacă a fost modificată cel puțin o notă
+     */
+    public boolean actualizeazaNota(String studentId, String cursId, double valoareNoua) {
+        boolean success = dbService.updateNota(studentId, cursId, valoareNoua);
+        if (success) {
+            auditService.logActiune("Actualizare nota", studentId + " la " + cursId + " nota " + valoareNoua);
+        }
+        return success;
+    }
+    
+    /**
+     * Șterge notele unui student la un curs; dacă valoarea este null se șterg toate notele de la acel curs
+     * @return numărul de note șterse
+     */
+    public int stergeNota(String studentId, String cursId, Double valoare) {
+        int sterse = dbService.deleteNota(studentId, cursId, valoare);
+        if (sterse > 0) {
+            auditService.logActiune("Stergere nota", studentId + " la " + cursId);
+        }
+        return sterse;
+    }
+    
+    /**
+     * Reîncarcă din baza de date depozitul de note; agregatele și clasamentul se refac din el
+     */
+    public void reconstruiesteAgregateNote() {
+        depozitNote.load(dbService);
+        auditService.logActiune("Reconstruire agregate note");
+    }
+    
+    /**
+     * @return Media tuturor notelor de la curs sau 0 dacă nu există note
+     */
+    public double getMedieCurs(String cursId) {
+        return depozitNote.getMedieCurs(cursId);
+    }
+    
+    /**
+     * @return Statisticile notelor pentru fiecare grup al dimensiunii (curs, materie, profesor sau an)
+     */
+    public Map<String, GradeStatistics.Statistici> getStatisticiNote(GradeStatistics.Dimensiune dimensiune) {
+        auditService.logActiune("Statistici note", dimensiune.name());
+        return statisticiNote.getStatistici(dimensiune);
+    }
+    
+    /**
+     * @param cheie ID-ul cursului, codul materiei, ID-ul profesorului sau anul de studiu
+     * @return Statisticile notelor grupului, dacă are note
+     */
+    public Optional<GradeStatistics.Statistici> getStatisticiNote(GradeStatistics.Dimensiune dimensiune, String cheie) {
+        auditService.logActiune("Statistici note", dimensiune.name() + " " + cheie);
+        return Optional.ofNullable(statisticiNote.getStatistici(dimensiune, cheie));
+    }
+    
+    /**
+     * @return Media studentului ponderată cu creditele materiilor sau 0 dacă nu are note
+     */
+    public double getMediePonderata(String studentId) {
+        return clasament.getMediePonderata(studentId);
+    }
+    
+    /**
+     * @return Primii n studenți după media ponderată, din toți anii de studiu
+     */
+    public List<RankingEngine.Intrare> getClasament(int n) {
+        auditService.logActiune("Clasament studenti", String.valueOf(n));
+        return clasament.getTop(n);
+    }
+    
+    /**
+     * @return Primii n studenți după media ponderată, din anul de studiu dat
+     */
+    public List<RankingEngine.Intrare> getClasamentAn(int anStudiu, int n) {
+        auditService.logActiune("Clasament studenti an", String.valueOf(anStudiu));
+        return clasament.getTopAn(anStudiu, n);
+    }
+    
+    /**
+     * @return Poziția studentului în clasamentul anului său sau 0 dacă nu are note;
+     *         costul crește cu poziția (vezi RankingEngine.getPozitieInAn)
+     */
+    public int getPozitieInAn(String studentId) {
+        return clasament.getPozitieInAn(studentId);
+    }
+    
+    /**
+     * @return Anii de studiu care au studenți în clasament
+     */
+    public List<Integer> getAniClasament() {
+        return clasament.getAni();
+    }
 
     // Metode pentru cursuri
     public List<Curs> getCursuriByStudent(String studentId) {
@@ -733,6 +1451,24 @@ public class CatalogService {
      * @return true dacă operația a reușit, false altfel
      */
     public boolean deleteStudent(String studentId) {
+        // Sub blocarea entității, verificările și ștergerea nu se intercalează cu operații compuse pe ea;
+        // retragerea de la cursuri are nevoie și de blocările lor, luate toate deodată
+        return blocari.calculeazaCuChei(() -> cheiStergereStudent(studentId), () -> deleteStudentSubBlocare(studentId));
+    }
+    
+    /**
+     * Cheile blocate la ștergerea unui student: el și cele ale retragerii de la fiecare curs din orarul lui.
+     * Orarul conține toate înscrierile studentului, inclusiv cele rezervate de o înscriere în masă încă
+     * nesalvate, care își țin cursurile blocate până la salvare; cheile se calculează deci fără acces la baza de date.
+     */
+    private List<String> cheiStergereStudent(String studentId) {
+        List<String> chei = new ArrayList<>();
+        chei.add("S:" + studentId);
+        orare.getCursuri(studentId).forEach(cursId -> chei.addAll(cheiRetragere(studentId, cursId)));
+        return chei;
+    }
+    
+    private boolean deleteStudentSubBlocare(String studentId) {
         // Verificăm dacă studentul există
         Optional<Student> studentOpt = getStudent(studentId);
         if (!studentOpt.isPresent()) {
@@ -742,10 +1478,17 @@ public class CatalogService {
         
         try {
             // 1. Ștergem toate notele studentului
-            dbService.notaRepository.deleteByStudentId(studentId);
+            dbService.deleteNoteByStudent(studentId);
             
-            // 2. Ștergem toate înscrierile studentului
-            dbService.inscriereRepository.deleteByStudentId(studentId);
+            // 2. Îl scoatem de pe listele de așteptare și îl retragem de la cursuri;
+            //    fiecare loc eliberat trece la următorul student care așteaptă
+            dbService.deleteListaAsteptareByStudent(studentId);
+            listeAsteptare.eliminaStudent(studentId);
+            for (Curs cursStudent : dbService.getCursuriByStudent(studentId)) {
+                dezinscrie(studentId, cursStudent.getId());
+            }
+            dbService.deleteInscrieriByStudent(studentId);
+            orare.eliminaStudent(studentId);
             
             // 3. Ștergem studentul
             boolean success = dbService.deleteStudent(studentId);
@@ -783,6 +1526,10 @@ public class CatalogService {
      * @return true dacă operația a reușit, false altfel
      */
     public boolean deleteCurs(String cursId) {
+        return blocari.calculeaza(() -> deleteCursSubBlocare(cursId), "C:" + cursId, "W:" + cursId);
+    }
+    
+    private boolean deleteCursSubBlocare(String cursId) {
         // Verificăm dacă cursul există
         Optional<Curs> cursOpt = getCurs(cursId);
         if (!cursOpt.isPresent()) {
@@ -792,10 +1539,13 @@ public class CatalogService {
         
         try {
             // 1. Ștergem toate notele asociate cursului
-            dbService.notaRepository.deleteByCursId(cursId);
+            dbService.deleteNoteByCurs(cursId);
             
-            // 2. Ștergem toate înscrierile la curs
-            dbService.inscriereRepository.deleteByCursId(cursId);
+            // 2. Ștergem toate înscrierile și lista de așteptare a cursului
+            dbService.deleteInscrieriByCurs(cursId);
+            dbService.deleteListaAsteptareByCurs(cursId);
+            listeAsteptare.eliminaCurs(cursId);
+            orare.eliminaCurs(cursId);
             
             // 3. Ștergem cursul
             boolean success = dbService.deleteCurs(cursId);
@@ -804,6 +1554,8 @@ public class CatalogService {
             if (success) {
                 cursuri.remove(cursId);
                 iduriUnice.remove(cursId);
+                deindexeazaCurs(cursOpt.get());
+                locuri.elimina(cursId);
             }
             
             auditService.logActiune("Stergere curs", cursId);
@@ -831,6 +1583,10 @@ public class CatalogService {
      * @return true dacă operația a reușit, false altfel
      */
     public boolean deleteProfesor(String profesorId) {
+        return blocari.calculeaza(() -> deleteProfesorSubBlocare(profesorId), "P:" + profesorId);
+    }
+    
+    private boolean deleteProfesorSubBlocare(String profesorId) {
         // Verificăm dacă profesorul există
         Optional<Profesor> profesorOpt = getProfesor(profesorId);
         if (!profesorOpt.isPresent()) {
@@ -880,6 +1636,10 @@ public class CatalogService {
      * @return true dacă operația a reușit, false altfel
      */
     public boolean deleteMaterie(String codMaterie) {
+        return blocari.calculeaza(() -> deleteMaterieSubBlocare(codMaterie), "M:" + codMaterie);
+    }
+    
+    private boolean deleteMaterieSubBlocare(String codMaterie) {
         // Verificăm dacă materia există
         Optional<Materie> materieOpt = getMaterie(codMaterie);
         if (!materieOpt.isPresent()) {
@@ -929,6 +1689,10 @@ public class CatalogService {
      * @return true dacă operația a reușit, false altfel
      */
     public boolean deleteSala(String salaId) {
+        return blocari.calculeaza(() -> deleteSalaSubBlocare(salaId), "R:" + salaId);
+    }
+    
+    private boolean deleteSalaSubBlocare(String salaId) {
         // Verificăm dacă sala există
         Optional<Sala> salaOpt = getSala(salaId);
         if (!salaOpt.isPresent()) {
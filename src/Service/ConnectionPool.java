@@ -0,0 +1,621 @@
+package Service;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de conexiuni JDBC cu dimensiune limitată.
+ * Fiecare fir de execuție primește o conexiune fizică proprie pe durata împrumutului;
+ * apelurile imbricate de getConnection() pe același fir reutilizează aceeași conexiune,
+ * iar close() pe handle o returnează în pool doar la eliberarea ultimului handle.
+ *
+ * Fiecare conexiune fizică are un cache LRU de instrucțiuni pregătite, indexat după textul SQL:
+ * prepareStatement(sql) refolosește instrucțiunea deja pregătită, iar close() pe aceasta doar
+ * o resetează și o returnează în cache. O instrucțiune aflată deja în folosință nu este
+ * partajată; pentru un al doilea apel cu același SQL se pregătește una nouă, necache-uită.
+ */
+public class ConnectionPool {
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final long validationIntervalMs;
+    private final int validationTimeoutSec;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final ThreadLocal<Lease> currentLease = new ThreadLocal<>();
+    private final ScheduledExecutorService maintenance;
+    private volatile boolean closed;
+
+    // Statistici
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder borrowNanos = new LongAdder();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long idleTimeoutMs, long borrowTimeoutMs, long validationIntervalMs,
+                          int validationTimeoutSec, int statementCacheSize) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.validationIntervalMs = validationIntervalMs;
+        this.validationTimeoutSec = validationTimeoutSec;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, idleTimeoutMs / 2);
+        maintenance.scheduleWithFixedDelay(this::maintain, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Împrumută o conexiune. Dacă firul curent are deja o conexiune împrumutată,
+     * returnează un nou handle către aceeași conexiune fizică.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        Lease lease = currentLease.get();
+        if (lease != null) {
+            lease.holds++;
+            return newHandle(lease);
+        }
+
+        long start = System.nanoTime();
+        acquirePermit();
+        PooledConnection pc;
+        try {
+            pc = takeIdle();
+            if (pc == null) {
+                pc = create();
+            }
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        active.incrementAndGet();
+        recordBorrow(System.nanoTime() - start);
+
+        lease = new Lease(pc, false);
+        currentLease.set(lease);
+        return newHandle(lease);
+    }
+
+    /**
+     * Împrumută o conexiune fizică separată, care nu este asociată firului curent: apelurile
+     * getConnection() de pe același fir primesc în continuare altă conexiune, deci commit-urile
+     * lor nu închid cursoarele deschise pe aceasta. Folosită pentru citirile în flux.
+     */
+    public Connection borrowDedicated() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        acquirePermit();
+        PooledConnection pc;
+        try {
+            pc = takeIdle();
+            if (pc == null) {
+                pc = create();
+            }
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        active.incrementAndGet();
+        recordBorrow(System.nanoTime() - start);
+        return newHandle(new Lease(pc, true));
+    }
+
+    /**
+     * Returnează conexiunea fizică împrumutată de firul curent, fără a crea un handle nou.
+     * @return conexiunea curentă sau null dacă firul nu are nicio conexiune împrumutată
+     */
+    public Connection currentConnection() {
+        Lease lease = currentLease.get();
+        return lease != null ? lease.pc.physical : null;
+    }
+
+    private void acquirePermit() throws SQLException {
+        waiters.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLException("Timeout waiting for a database connection after " + borrowTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    private PooledConnection takeIdle() {
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            if (isUsable(pc)) {
+                return pc;
+            }
+            discard(pc);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pc) {
+        try {
+            if (pc.physical.isClosed()) {
+                return false;
+            }
+            // Conexiunile folosite recent nu mai sunt validate pentru a evita un round trip la fiecare împrumut
+            if (System.currentTimeMillis() - pc.lastUsed < validationIntervalMs) {
+                return true;
+            }
+            return pc.physical.isValid(validationTimeoutSec);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, user, password);
+        // Set auto-commit to false to enable transaction control
+        physical.setAutoCommit(false);
+        total.incrementAndGet();
+        created.increment();
+        return new PooledConnection(physical, new StatementCache(physical, statementCacheSize));
+    }
+
+    private void discard(PooledConnection pc) {
+        total.decrementAndGet();
+        try {
+            pc.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private void release(Lease lease) {
+        if (--lease.holds > 0) {
+            return;
+        }
+        if (!lease.dedicated) {
+            currentLease.remove();
+        }
+        PooledConnection pc = lease.pc;
+        // Instrucțiunile neînchise de apelant sunt returnate forțat, pentru următorul împrumut
+        pc.statements.reclaimAll();
+        boolean reusable = true;
+        try {
+            // Comitem eventualele modificări rămase, la fel ca la închiderea conexiunii
+            if (!pc.physical.isClosed() && !pc.physical.getAutoCommit()) {
+                pc.physical.commit();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error committing transaction before release: " + e.getMessage());
+            try {
+                pc.physical.rollback();
+            } catch (SQLException re) {
+                System.err.println("Error rolling back transaction: " + re.getMessage());
+                reusable = false;
+            }
+        }
+
+        active.decrementAndGet();
+        if (closed || !reusable) {
+            discard(pc);
+        } else {
+            pc.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(pc);
+        }
+        permits.release();
+    }
+
+    private void recordBorrow(long nanos) {
+        borrowCount.increment();
+        borrowNanos.add(nanos);
+        maxBorrowNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Elimină conexiunile inactive peste limita minimă și completează pool-ul până la dimensiunea minimă.
+     */
+    private void maintain() {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && total.get() > minSize) {
+            PooledConnection pc = it.next();
+            if (now - pc.lastUsed > idleTimeoutMs && idle.removeLastOccurrence(pc)) {
+                discard(pc);
+                evicted.increment();
+            }
+        }
+
+        while (!closed && total.get() < minSize && permits.tryAcquire()) {
+            try {
+                idle.offerLast(create());
+            } catch (SQLException e) {
+                System.err.println("Error pre-creating pooled connection: " + e.getMessage());
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Închide pool-ul: conexiunile inactive sunt închise imediat,
+     * iar cele împrumutate sunt închise la returnare.
+     */
+    public void close() {
+        closed = true;
+        maintenance.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            discard(pc);
+        }
+    }
+
+    public Stats getStats() {
+        long count = borrowCount.sum();
+        return new Stats(
+                active.get(),
+                idle.size(),
+                waiters.get(),
+                total.get(),
+                maxSize,
+                count,
+                count == 0 ? 0 : borrowNanos.sum() / count / 1000,
+                maxBorrowNanos.get() / 1000,
+                timeouts.sum(),
+                created.sum(),
+                evicted.sum(),
+                statementHits.sum(),
+                statementMisses.sum(),
+                statementEvictions.sum()
+        );
+    }
+
+    private Connection newHandle(Lease lease) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle(lease));
+    }
+
+    /**
+     * Handle returnat apelanților; close() eliberează împrumutul în loc să închidă conexiunea fizică.
+     */
+    private final class Handle implements InvocationHandler {
+        private final Lease lease;
+        private boolean released;
+
+        Handle(Lease lease) {
+            this.lease = lease;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(lease);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || lease.pc.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + lease.pc.physical + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection handle has already been returned to the pool");
+            }
+            if (statementCacheSize > 0 && method.getName().equals("prepareStatement")
+                    && args != null && args.length == 1) {
+                return lease.pc.statements.prepare((String) args[0], (Connection) proxy);
+            }
+            try {
+                return method.invoke(lease.pc.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static final class PooledConnection {
+        final Connection physical;
+        final StatementCache statements;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        PooledConnection(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+    }
+
+    /**
+     * Cache LRU de instrucțiuni pregătite pentru o singură conexiune fizică.
+     * Este folosit doar de firul care deține conexiunea, deci nu necesită sincronizare.
+     */
+    private final class StatementCache {
+        private final Connection physical;
+        private final int maxSize;
+        private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        StatementCache(Connection physical, int maxSize) {
+            this.physical = physical;
+            this.maxSize = maxSize;
+        }
+
+        PreparedStatement prepare(String sql, Connection handle) throws SQLException {
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && !cached.inUse && !cached.statement.isClosed()) {
+                statementHits.increment();
+                return cached.checkout(handle);
+            }
+            statementMisses.increment();
+            if (cached != null && cached.inUse) {
+                // Același SQL este deja folosit pe această conexiune; nu partajăm instrucțiunea
+                return physical.prepareStatement(sql);
+            }
+            if (cached != null) {
+                statements.remove(sql);
+            }
+
+            cached = new CachedStatement(physical.prepareStatement(sql));
+            statements.put(sql, cached);
+            evictOverflow();
+            return cached.checkout(handle);
+        }
+
+        private void evictOverflow() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > maxSize && it.hasNext()) {
+                CachedStatement candidate = it.next();
+                if (candidate.inUse) {
+                    continue;
+                }
+                it.remove();
+                statementEvictions.increment();
+                closeQuietly(candidate.statement);
+            }
+        }
+
+        void reclaimAll() {
+            for (CachedStatement cached : statements.values()) {
+                if (cached.inUse) {
+                    cached.checkin();
+                }
+            }
+        }
+    }
+
+    /**
+     * O instrucțiune din cache; apelanții primesc un proxy al cărui close() o returnează în cache.
+     */
+    private static final class CachedStatement {
+        final PreparedStatement statement;
+        boolean inUse;
+        StatementHandle current;
+
+        CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        PreparedStatement checkout(Connection handle) {
+            inUse = true;
+            current = new StatementHandle(this, handle);
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    current);
+        }
+
+        void checkin() {
+            if (current != null) {
+                current.returned = true;
+                current = null;
+            }
+            inUse = false;
+            try {
+                // Închidem rezultatele rămase și resetăm parametrii pentru următorul apelant
+                ResultSet rs = statement.getResultSet();
+                if (rs != null) {
+                    rs.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+            } catch (SQLException e) {
+                System.err.println("Error resetting cached statement: " + e.getMessage());
+                closeQuietly(statement);
+            }
+        }
+    }
+
+    private static final class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection handle;
+        boolean returned;
+
+        StatementHandle(CachedStatement cached, Connection handle) {
+            this.cached = cached;
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        cached.checkin();
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || cached.statement.isClosed();
+                case "getConnection":
+                    return handle;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.statement + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Statement has already been returned to the cache");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing cached statement: " + e.getMessage());
+        }
+    }
+
+    private static final class Lease {
+        final PooledConnection pc;
+        final boolean dedicated;
+        int holds = 1;
+
+        Lease(PooledConnection pc, boolean dedicated) {
+            this.pc = pc;
+            this.dedicated = dedicated;
+        }
+    }
+
+    /**
+     * Instantaneu al statisticilor pool-ului, pentru monitorizare.
+     */
+    public static final class Stats {
+        private final int active;
+        private final int idle;
+        private final int waiters;
+        private final int total;
+        private final int maxSize;
+        private final long borrowCount;
+        private final long avgBorrowMicros;
+        private final long maxBorrowMicros;
+        private final long timeouts;
+        private final long created;
+        private final long evicted;
+        private final long statementHits;
+        private final long statementMisses;
+        private final long statementEvictions;
+
+        Stats(int active, int idle, int waiters, int total, int maxSize, long borrowCount,
+              long avgBorrowMicros, long maxBorrowMicros, long timeouts, long created, long evicted,
+              long statementHits, long statementMisses, long statementEvictions) {
+            this.active = active;
+            this.idle = idle;
+            this.waiters = waiters;
+            this.total = total;
+            this.maxSize = maxSize;
+            this.borrowCount = borrowCount;
+            this.avgBorrowMicros = avgBorrowMicros;
+            this.maxBorrowMicros = maxBorrowMicros;
+            this.timeouts = timeouts;
+            this.created = created;
+            this.evicted = evicted;
+            this.statementHits = statementHits;
+            this.statementMisses = statementMisses;
+            this.statementEvictions = statementEvictions;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getWaiters() { return waiters; }
+        public int getTotal() { return total; }
+        public int getMaxSize() { return maxSize; }
+        public long getBorrowCount() { return borrowCount; }
+        public long getAvgBorrowMicros() { return avgBorrowMicros; }
+        public long getMaxBorrowMicros() { return maxBorrowMicros; }
+        public long getTimeouts() { return timeouts; }
+        public long getCreated() { return created; }
+        public long getEvicted() { return evicted; }
+        public long getStatementHits() { return statementHits; }
+        public long getStatementMisses() { return statementMisses; }
+        public long getStatementEvictions() { return statementEvictions; }
+
+        public double getStatementHitRate() {
+            long lookups = statementHits + statementMisses;
+            return lookups == 0 ? 0 : (double) statementHits / lookups;
+        }
+
+        @Override
+        public String toString() {
+            return "Pool[active=" + active + ", idle=" + idle + ", waiters=" + waiters +
+                    ", total=" + total + "/" + maxSize + ", borrows=" + borrowCount +
+                    ", avgBorrow=" + avgBorrowMicros + "us, maxBorrow=" + maxBorrowMicros + "us" +
+                    ", timeouts=" + timeouts + ", created=" + created + ", evicted=" + evicted +
+                    ", statementHits=" + statementHits + ", statementMisses=" + statementMisses +
+                    String.format(", statementHitRate=%.2f", getStatementHitRate()) +
+                    ", statementEvictions=" + statementEvictions + "]";
+        }
+    }
+}
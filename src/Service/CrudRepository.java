@@ -1,7 +1,9 @@
 package Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Generic interface for CRUD operations on a repository for a specific type.
@@ -16,6 +18,24 @@ public interface CrudRepository<T, ID> {
      */
     T save(T entity);
 
+    /**
+     * Saves all given entities. The default implementation saves them one by one;
+     * repositories that support JDBC batching override it.
+     * @param entities - entities to save
+     * @return the saved entities and the ones that failed, with the reason
+     */
+    default BatchResult<T> saveAll(Collection<T> entities) {
+        BatchResult<T> result = new BatchResult<>();
+        for (T entity : entities) {
+            try {
+                result.addSaved(save(entity));
+            } catch (RuntimeException e) {
+                result.addFailure(entity, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+        return result;
+    }
+
     /**
      * Retrieves an entity by its id.
      * @param id - entity id
@@ -29,6 +49,17 @@ public interface CrudRepository<T, ID> {
      */
     List<T> findAll();
 
+    /**
+     * Returns all instances of the type as a stream read row by row from a database cursor,
+     * so memory use does not grow with the table. The default implementation falls back to findAll.
+     * The stream holds a database connection until it is fully consumed or closed,
+     * so callers should use it in a try-with-resources block.
+     * @return a stream over all entities
+     */
+    default Stream<T> streamAll() {
+        return findAll().stream();
+    }
+
     /**
      * Updates the entity with the given id.
      * @param id - entity id
@@ -4,18 +4,18 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
 public class DatabaseConnectionSingleton {
     private static DatabaseConnectionSingleton instance;
-    private Connection connection;
+    private ConnectionPool pool;
     private final String url;
     private final String user;
     private final String password;
     private final String driver;
     private final boolean isH2;
+    private final Properties props;
     
     // Register a shutdown hook to ensure the connection is closed when the JVM exits
     static {
@@ -55,11 +55,19 @@ public class DatabaseConnectionSingleton {
             throw new RuntimeException("Cannot load database properties", e);
         }
 
+        // Proprietățile de sistem db.* au prioritate față de fișier (ex: -Ddb.url=... pentru benchmark-uri)
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("db.")) {
+                props.setProperty(key, System.getProperty(key));
+            }
+        }
+
         this.url = props.getProperty("db.url");
         this.user = props.getProperty("db.user");
         this.password = props.getProperty("db.password");
         this.driver = props.getProperty("db.driver");
         this.isH2 = this.driver.contains("h2");
+        this.props = props;
 
         try {
             Class.forName(driver);
@@ -76,21 +84,92 @@ public class DatabaseConnectionSingleton {
         return instance;
     }
 
-    public synchronized Connection getConnection() throws SQLException {
+    /**
+     * Împrumută o conexiune din pool. Apelurile imbricate de pe același fir primesc aceeași
+     * conexiune fizică; close() pe conexiunea returnată o eliberează înapoi în pool.
+     */
+    public Connection getConnection() throws SQLException {
         try {
-            if (connection == null || connection.isClosed()) {
-                connection = DriverManager.getConnection(url, user, password);
-                // Set auto-commit to false to enable transaction control
-                connection.setAutoCommit(false);
-            }
-            return connection;
+            return getPool().borrow();
         } catch (SQLException e) {
             System.err.println("Error connecting to database: " + e.getMessage());
             throw e;
         }
     }
+
+    /**
+     * Împrumută din pool o conexiune separată de cea a firului curent, pentru citiri în flux
+     * cu cursor; close() pe conexiunea returnată o eliberează înapoi în pool.
+     */
+    public Connection getDedicatedConnection() throws SQLException {
+        try {
+            return getPool().borrowDedicated();
+        } catch (SQLException e) {
+            System.err.println("Error connecting to database: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private synchronized ConnectionPool getPool() {
+        if (pool == null) {
+            pool = new ConnectionPool(
+                    url, user, password,
+                    intProperty("db.pool.minSize", 1),
+                    intProperty("db.pool.maxSize", 10),
+                    longProperty("db.pool.idleTimeoutMs", 300_000L),
+                    longProperty("db.pool.borrowTimeoutMs", 30_000L),
+                    longProperty("db.pool.validationIntervalMs", 5_000L),
+                    intProperty("db.pool.validationTimeoutSec", 2),
+                    intProperty("db.pool.statementCacheSize", 50)
+            );
+        }
+        return pool;
+    }
+
+    private int intProperty(String key, int defaultValue) {
+        String value = props.getProperty(key);
+        return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+    }
+
+    private long longProperty(String key, long defaultValue) {
+        String value = props.getProperty(key);
+        return value != null ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
+    /**
+     * Numărul de rânduri trimise într-un singur executeBatch la salvările în lot (db.batch.size).
+     */
+    public int getBatchSize() {
+        return Math.max(1, intProperty("db.batch.size", 500));
+    }
+
+    /**
+     * Numărul de rânduri aduse de driver la un drum prin rețea la citirile în flux (db.stream.fetchSize).
+     */
+    public int getFetchSize() {
+        return Math.max(1, intProperty("db.stream.fetchSize", 500));
+    }
+
+    /**
+     * Returnează statisticile pool-ului de conexiuni (active, inactive, fire în așteptare, latența împrumutului).
+     */
+    public ConnectionPool.Stats getPoolStats() {
+        return getPool().getStats();
+    }
+
+    /**
+     * Conexiunea împrumutată în acest moment de firul curent, pe care se aplică commit/rollback.
+     */
+    private Connection currentConnection() {
+        ConnectionPool current;
+        synchronized (this) {
+            current = pool;
+        }
+        return current != null ? current.currentConnection() : null;
+    }
     
     public void commitTransaction() {
+        Connection connection = currentConnection();
         if (connection != null) {
             try {
                 if (!connection.getAutoCommit() && !connection.isClosed()) {
@@ -110,6 +189,7 @@ public class DatabaseConnectionSingleton {
     }
     
     public void rollbackTransaction() {
+        Connection connection = currentConnection();
         if (connection != null) {
             try {
                 if (!connection.getAutoCommit() && !connection.isClosed()) {
@@ -122,28 +202,13 @@ public class DatabaseConnectionSingleton {
         }
     }
 
+    /**
+     * Închide pool-ul de conexiuni. Un apel ulterior la getConnection() creează un pool nou.
+     */
     public synchronized void closeConnection() {
-        if (connection != null) {
-            try {
-                // Try to commit any pending transactions before closing
-                if (!connection.getAutoCommit() && !connection.isClosed()) {
-                    try {
-                        connection.commit();
-                    } catch (SQLException e) {
-                        System.err.println("Error committing transaction before close: " + e.getMessage());
-                        try {
-                            connection.rollback();
-                        } catch (SQLException re) {
-                            System.err.println("Error rolling back transaction: " + re.getMessage());
-                        }
-                    }
-                }
-                
-                connection.close();
-                connection = null;
-            } catch (SQLException e) {
-                System.err.println("Error closing database connection: " + e.getMessage());
-            }
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
     
@@ -10,8 +10,16 @@ import java.io.InputStreamReader;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class DatabaseService {
     private static DatabaseService instance;
@@ -27,6 +35,13 @@ public class DatabaseService {
     public final CursRepository cursRepository;
     public final InscriereRepository inscriereRepository;
     public final NotaRepository notaRepository;
+    public final ListaAsteptareRepository listaAsteptareRepository;
+    
+    // Cache-uri pentru citirile frecvente; invalidate la orice scriere prin acest serviciu
+    private final Cache<String, Student> studentCache;
+    private final Cache<String, Curs> cursCache;
+    private final Cache<String, List<Nota>> noteCache;
+    private final Cache<String, List<Curs>> cursuriStudentCache;
     
     // Register a shutdown hook to ensure the connection is closed when the JVM exits
     static {
@@ -47,8 +62,17 @@ public class DatabaseService {
         this.materieRepository = new MaterieRepository();
         this.salaRepository = new SalaRepository();
         this.cursRepository = new CursRepository();
-        this.inscriereRepository = new InscriereRepository();
+        // Repository-urile dependente primesc aceleași instanțe în loc să își creeze propriile copii
+        this.inscriereRepository = new InscriereRepository(studentRepository, cursRepository);
         this.notaRepository = new NotaRepository();
+        this.listaAsteptareRepository = new ListaAsteptareRepository();
+        
+        // Configurare prin proprietăți de sistem: cache.enabled, cache.policy (LRU, LFU),
+        // cache.maxEntries, cache.maxWeight (numărul total de elemente din listele păstrate), cache.ttlMs
+        this.studentCache = createCache(value -> 1);
+        this.cursCache = createCache(value -> 1);
+        this.noteCache = createCache(List::size);
+        this.cursuriStudentCache = createCache(List::size);
         
         initDatabase();
     }
@@ -60,6 +84,49 @@ public class DatabaseService {
         return instance;
     }
     
+    private static <V> Cache<String, V> createCache(java.util.function.ToIntFunction<? super V> weigher) {
+        if (!Boolean.parseBoolean(System.getProperty("cache.enabled", "true"))) {
+            return new NoOpCache<>();
+        }
+        BoundedCache.Policy policy = BoundedCache.Policy.valueOf(System.getProperty("cache.policy", "LRU").toUpperCase());
+        int maxEntries = Integer.getInteger("cache.maxEntries", 10_000);
+        long maxWeight = Long.getLong("cache.maxWeight", 100_000L);
+        long ttlMs = Long.getLong("cache.ttlMs", 60_000L);
+        return new BoundedCache<>(policy, maxEntries, maxWeight, ttlMs, weigher);
+    }
+    
+    /**
+     * Returnează statisticile cache-urilor (hit-uri, miss-uri, eliminări) pe tipuri de interogare.
+     */
+    public Map<String, Cache.Stats> getCacheStats() {
+        Map<String, Cache.Stats> stats = new LinkedHashMap<>();
+        stats.put("student", studentCache.getStats());
+        stats.put("curs", cursCache.getStats());
+        stats.put("noteByStudent", noteCache.getStats());
+        stats.put("cursuriByStudent", cursuriStudentCache.getStats());
+        return stats;
+    }
+    
+    /**
+     * Golește toate cache-urile (ex: după modificări făcute direct în baza de date).
+     */
+    public void invalidateCaches() {
+        studentCache.invalidateAll();
+        cursCache.invalidateAll();
+        noteCache.invalidateAll();
+        cursuriStudentCache.invalidateAll();
+    }
+    
+    /**
+     * Cursurile, notele și listele de cursuri ale studenților conțin copii ale profesorilor,
+     * materiilor și sălilor, deci orice modificare a acestora invalidează toate intrările.
+     */
+    private void invalidateCourseGraph() {
+        cursCache.invalidateAll();
+        noteCache.invalidateAll();
+        cursuriStudentCache.invalidateAll();
+    }
+    
     private void initDatabase() {
         try (Connection conn = dbConnection.getConnection()) {
             if (dbConnection.isH2Database()) {
@@ -163,6 +230,19 @@ public class DatabaseService {
                     "FOREIGN KEY (student_id) REFERENCES studenti(id), " +
                     "FOREIGN KEY (curs_id) REFERENCES cursuri(id)" +
                     ")");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_inscrieri_curs ON inscrieri (curs_id)");
+            
+            // Tabela lista_asteptare - adaptare pentru H2 și PostgreSQL
+            stmt.execute("CREATE TABLE IF NOT EXISTS lista_asteptare (" +
+                    (dbConnection.isH2Database() ? "id INT AUTO_INCREMENT PRIMARY KEY, " : "id SERIAL PRIMARY KEY, ") +
+                    "student_id VARCHAR(50) NOT NULL, " +
+                    "curs_id VARCHAR(50) NOT NULL, " +
+                    "data_adaugare DATE NOT NULL, " +
+                    "UNIQUE (student_id, curs_id), " +
+                    "FOREIGN KEY (student_id) REFERENCES studenti(id), " +
+                    "FOREIGN KEY (curs_id) REFERENCES cursuri(id)" +
+                    ")");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_lista_asteptare_curs ON lista_asteptare (curs_id, id)");
             
             // Tabela note - adaptare pentru H2 și PostgreSQL
             if (dbConnection.isH2Database()) {
@@ -220,23 +300,58 @@ public class DatabaseService {
     
     // Student methods
     public Student saveStudent(Student student) {
+        studentCache.invalidate(student.getId());
         return studentRepository.save(student);
     }
     
+    public BatchResult<Student> saveStudents(Collection<Student> students) {
+        students.forEach(student -> studentCache.invalidate(student.getId()));
+        return studentRepository.saveAll(students);
+    }
+    
     public Optional<Student> getStudent(String id) {
-        return studentRepository.findById(id);
+        return Optional.ofNullable(studentCache.getOrLoad(id, key -> studentRepository.findById(key).orElse(null)));
     }
     
     public List<Student> getAllStudents() {
         return studentRepository.findAll();
     }
     
+    /**
+     * Parcurgere în flux, fără a încărca tabela în memorie; fluxul trebuie închis după folosire.
+     */
+    public Stream<Student> streamStudents() {
+        return studentRepository.streamAll();
+    }
+    
+    public List<String> getAllStudentIds() {
+        return studentRepository.findAllIds();
+    }
+    
+    /**
+     * Pagina de studenți de după afterId, în ordinea ID-urilor (null pentru prima pagină).
+     */
+    public List<Student> getStudentsPage(String afterId, int limit) {
+        return studentRepository.findPage(afterId, limit);
+    }
+    
     public Student updateStudent(String id, Student student) {
-        return studentRepository.update(id, student);
+        try {
+            return studentRepository.update(id, student);
+        } finally {
+            // Studentul apare și în listele de înscriși ale cursurilor și în note
+            studentCache.invalidate(id);
+            invalidateCourseGraph();
+        }
     }
     
     public boolean deleteStudent(String id) {
-        return studentRepository.deleteById(id);
+        try {
+            return studentRepository.deleteById(id);
+        } finally {
+            studentCache.invalidate(id);
+            invalidateCourseGraph();
+        }
     }
     
     // Profesor methods
@@ -252,12 +367,34 @@ public class DatabaseService {
         return profesorRepository.findAll();
     }
     
+    /**
+     * Pagina de profesori de după afterId, în ordinea ID-urilor (null pentru prima pagină).
+     */
+    public List<Profesor> getProfesorsPage(String afterId, int limit) {
+        return profesorRepository.findPage(afterId, limit);
+    }
+    
+    /**
+     * Parcurgere în flux, fără a încărca tabela în memorie; fluxul trebuie închis după folosire.
+     */
+    public Stream<Profesor> streamProfesors() {
+        return profesorRepository.streamAll();
+    }
+    
     public Profesor updateProfesor(String id, Profesor profesor) {
-        return profesorRepository.update(id, profesor);
+        try {
+            return profesorRepository.update(id, profesor);
+        } finally {
+            invalidateCourseGraph();
+        }
     }
     
     public boolean deleteProfesor(String id) {
-        return profesorRepository.deleteById(id);
+        try {
+            return profesorRepository.deleteById(id);
+        } finally {
+            invalidateCourseGraph();
+        }
     }
     
     // Materie methods
@@ -273,12 +410,27 @@ public class DatabaseService {
         return materieRepository.findAll();
     }
     
+    /**
+     * Parcurgere în flux, fără a încărca tabela în memorie; fluxul trebuie închis după folosire.
+     */
+    public Stream<Materie> streamMaterii() {
+        return materieRepository.streamAll();
+    }
+    
     public Materie updateMaterie(String cod, Materie materie) {
-        return materieRepository.update(cod, materie);
+        try {
+            return materieRepository.update(cod, materie);
+        } finally {
+            invalidateCourseGraph();
+        }
     }
     
     public boolean deleteMaterie(String cod) {
-        return materieRepository.deleteById(cod);
+        try {
+            return materieRepository.deleteById(cod);
+        } finally {
+            invalidateCourseGraph();
+        }
     }
     
     // Sala methods
@@ -294,46 +446,212 @@ public class DatabaseService {
         return salaRepository.findAll();
     }
     
+    /**
+     * Parcurgere în flux, fără a încărca tabela în memorie; fluxul trebuie închis după folosire.
+     */
+    public Stream<Sala> streamSali() {
+        return salaRepository.streamAll();
+    }
+    
     public Sala updateSala(String id, Sala sala) {
-        return salaRepository.update(id, sala);
+        try {
+            return salaRepository.update(id, sala);
+        } finally {
+            invalidateCourseGraph();
+        }
     }
     
     public boolean deleteSala(String id) {
-        return salaRepository.deleteById(id);
+        try {
+            return salaRepository.deleteById(id);
+        } finally {
+            invalidateCourseGraph();
+        }
     }
     
     // Curs methods
     public Curs saveCurs(Curs curs) {
+        cursCache.invalidate(curs.getId());
         return cursRepository.save(curs);
     }
     
+    /**
+     * Cursul din cache este partajat, deci apelantul primește o copie pe care o poate modifica.
+     */
     public Optional<Curs> getCurs(String id) {
-        return cursRepository.findById(id);
+        return Optional.ofNullable(cursCache.getOrLoad(id, key -> cursRepository.findById(key).orElse(null)))
+                .map(Curs::copie);
     }
     
     public List<Curs> getAllCursuri() {
         return cursRepository.findAll();
     }
     
+    /**
+     * Parcurgere în flux, fără a încărca tabela în memorie; fluxul trebuie închis după folosire.
+     */
+    public Stream<Curs> streamCursuri() {
+        return cursRepository.streamAll();
+    }
+    
+    public List<Curs> getAllCursuriLazy() {
+        return cursRepository.findAllLazy();
+    }
+    
+    /**
+     * Pagina de cursuri de după afterId, în ordinea ID-urilor (null pentru prima pagină).
+     */
+    public List<Curs> getCursuriPage(String afterId, int limit) {
+        return cursRepository.findPage(afterId, limit);
+    }
+    
     public Curs updateCurs(String id, Curs curs) {
-        return cursRepository.update(id, curs);
+        try {
+            return cursRepository.update(id, curs);
+        } finally {
+            invalidateCourseGraph();
+        }
     }
     
     public boolean deleteCurs(String id) {
-        return cursRepository.deleteById(id);
+        try {
+            return cursRepository.deleteById(id);
+        } finally {
+            invalidateCourseGraph();
+        }
     }
     
     // Inscriere methods
     public void saveInscriere(Inscriere inscriere) {
-        inscriereRepository.save(inscriere);
+        try {
+            inscriereRepository.save(inscriere);
+        } finally {
+            invalidateEnrollment(inscriere.getStudent().getId(), inscriere.getCurs().getId());
+        }
+    }
+    
+    /**
+     * Salvează înscrierea doar dacă sala cursului mai are locuri, într-o tranzacție care blochează rândul cursului.
+     */
+    public InscriereRepository.SaveStatus saveInscriereWithinCapacity(Inscriere inscriere) {
+        try {
+            return inscriereRepository.saveWithinCapacity(inscriere);
+        } finally {
+            invalidateEnrollment(inscriere.getStudent().getId(), inscriere.getCurs().getId());
+        }
+    }
+    
+    /**
+     * @return Numărul de înscrieri pentru fiecare curs cu cel puțin o înscriere
+     */
+    public Map<String, Integer> countInscrieriByCurs() {
+        return inscriereRepository.countByCurs();
+    }
+    
+    /**
+     * @return Pentru fiecare student dat care are înscrieri, ID-urile cursurilor lui
+     */
+    public Map<String, List<String>> getCursIdsByStudenti(Set<String> studentIds) {
+        return inscriereRepository.findCursIdsByStudenti(studentIds);
+    }
+    
+    /**
+     * @return Pentru fiecare student care are înscrieri, ID-urile cursurilor lui
+     */
+    public Map<String, List<String>> getCursIdsByStudent() {
+        return inscriereRepository.findAllCursIdsByStudent();
+    }
+    
+    public BatchResult<Inscriere> saveInscrieri(Collection<Inscriere> inscrieri) {
+        try {
+            return inscriereRepository.saveAll(inscrieri);
+        } finally {
+            inscrieri.forEach(inscriere ->
+                    invalidateEnrollment(inscriere.getStudent().getId(), inscriere.getCurs().getId()));
+        }
+    }
+    
+    /**
+     * Salvează înscrierile în loturi, fiecare rând doar dacă sala cursului mai are loc;
+     * înscrierile la cursuri pline ajung în BatchResult.getSkipped().
+     */
+    public BatchResult<Inscriere> saveInscrieriWithinCapacity(Collection<Inscriere> inscrieri) {
+        try {
+            return inscriereRepository.saveAllWithinCapacity(inscrieri);
+        } finally {
+            inscrieri.forEach(inscriere ->
+                    invalidateEnrollment(inscriere.getStudent().getId(), inscriere.getCurs().getId()));
+        }
     }
     
     public List<Inscriere> getInscrieriByStudent(String studentId) {
         return inscriereRepository.findByStudentId(studentId);
     }
     
-    public boolean deleteInscriere(String studentId, String cursId) {
-        return inscriereRepository.deleteByStudentAndCursId(studentId, cursId);
+    /**
+     * Șterge înscrierea; locul eliberat trece în aceeași tranzacție la primul student de pe lista de așteptare.
+     */
+    public InscriereRepository.DeleteResult deleteInscriere(String studentId, String cursId, String promotedStudentId) {
+        InscriereRepository.DeleteResult result = null;
+        try {
+            result = inscriereRepository.deleteByStudentAndCursId(studentId, cursId, promotedStudentId);
+            return result;
+        } finally {
+            invalidateEnrollment(studentId, cursId);
+            if (result != null && result.getPromotedStudentId() != null) {
+                invalidateEnrollment(result.getPromotedStudentId(), cursId);
+            }
+        }
+    }
+    
+    public int deleteInscrieriByStudent(String studentId) {
+        try {
+            return inscriereRepository.deleteByStudentId(studentId);
+        } finally {
+            cursuriStudentCache.invalidate(studentId);
+            cursCache.invalidateAll();
+        }
+    }
+    
+    public int deleteInscrieriByCurs(String cursId) {
+        try {
+            return inscriereRepository.deleteByCursId(cursId);
+        } finally {
+            cursCache.invalidate(cursId);
+            cursuriStudentCache.invalidateAll();
+        }
+    }
+    
+    // Lista de așteptare methods
+    public boolean saveListaAsteptare(String studentId, String cursId) {
+        return listaAsteptareRepository.save(studentId, cursId);
+    }
+    
+    public boolean deleteListaAsteptare(String studentId, String cursId) {
+        return listaAsteptareRepository.deleteByStudentAndCursId(studentId, cursId);
+    }
+    
+    public int deleteListaAsteptareByStudent(String studentId) {
+        return listaAsteptareRepository.deleteByStudentId(studentId);
+    }
+    
+    public int deleteListaAsteptareByCurs(String cursId) {
+        return listaAsteptareRepository.deleteByCursId(cursId);
+    }
+    
+    /**
+     * @return Pentru fiecare curs, studenții în așteptare în ordinea listei
+     */
+    public Map<String, List<String>> getListeAsteptare() {
+        return listaAsteptareRepository.findAllByCurs();
+    }
+    
+    /**
+     * O înscriere modifică lista de cursuri a studentului și lista de înscriși a cursului.
+     */
+    private void invalidateEnrollment(String studentId, String cursId) {
+        cursuriStudentCache.invalidate(studentId);
+        cursCache.invalidate(cursId);
     }
     
     public boolean isStudentEnrolled(String studentId, String cursId) {
@@ -342,11 +660,38 @@ public class DatabaseService {
     
     // Nota methods
     public void saveNota(Nota nota) {
-        notaRepository.save(nota);
+        try {
+            notaRepository.save(nota);
+        } finally {
+            noteCache.invalidate(nota.getStudent().getId());
+        }
+    }
+    
+    public BatchResult<Nota> saveNote(Collection<Nota> note) {
+        try {
+            return notaRepository.saveAll(note);
+        } finally {
+            note.forEach(nota -> noteCache.invalidate(nota.getStudent().getId()));
+        }
+    }
+    
+    /**
+     * Parcurgere în flux, fără a încărca tabela în memorie; fluxul trebuie închis după folosire.
+     */
+    public Stream<Nota> streamNote() {
+        return notaRepository.streamAll();
     }
     
     public List<Nota> getNoteByStudent(String studentId) {
-        return notaRepository.findByStudentId(studentId);
+        // Lista din cache este imuabilă; apelantul primește note noi, cu copii ale cursurilor
+        List<Nota> note = noteCache.getOrLoad(studentId, key -> List.copyOf(notaRepository.findByStudentId(key)));
+        Map<String, Curs> copii = new HashMap<>();
+        List<Nota> rezultat = new ArrayList<>(note.size());
+        for (Nota nota : note) {
+            Curs curs = copii.computeIfAbsent(nota.getCurs().getId(), id -> nota.getCurs().copie());
+            rezultat.add(new Nota(nota.getStudent(), curs, nota.getValoare(), nota.getDataAtribuire()));
+        }
+        return rezultat;
     }
     
     public List<Nota> getNoteByStudentAndCurs(String studentId, String cursId) {
@@ -354,18 +699,59 @@ public class DatabaseService {
     }
     
     public boolean updateNota(String studentId, String cursId, double newValue) {
-        return notaRepository.updateNota(studentId, cursId, newValue);
+        try {
+            return notaRepository.updateNota(studentId, cursId, newValue);
+        } finally {
+            noteCache.invalidate(studentId);
+        }
+    }
+    
+    public int deleteNoteByStudent(String studentId) {
+        try {
+            return notaRepository.deleteByStudentId(studentId);
+        } finally {
+            noteCache.invalidate(studentId);
+        }
+    }
+    
+    public int deleteNoteByCurs(String cursId) {
+        try {
+            return notaRepository.deleteByCursId(cursId);
+        } finally {
+            noteCache.invalidateAll();
+        }
+    }
+    
+    /**
+     * Șterge notele unui student la un curs; dacă valoarea este null se șterg toate notele de la acel curs.
+     */
+    public int deleteNota(String studentId, String cursId, Double valoare) {
+        try {
+            return notaRepository.deleteByStudentAndCursId(studentId, cursId, valoare);
+        } finally {
+            noteCache.invalidate(studentId);
+        }
     }
     
     public double getMedieStudent(String studentId) {
         return notaRepository.getMedieStudent(studentId);
     }
     
+    public void forEachGradeRow(NotaRepository.GradeRowVisitor visitor) {
+        notaRepository.forEachGradeRow(visitor);
+    }
+    
+    public void addGradeWriteListener(NotaRepository.WriteListener listener) {
+        notaRepository.addWriteListener(listener);
+    }
+    
     // Course by student
     public List<Curs> getCursuriByStudent(String studentId) {
-        List<Curs> cursuri = cursRepository.findByStudentId(studentId);
-        System.out.println("Debug - DatabaseService - Cursuri pentru student " + studentId + ": " + cursuri.size());
-        return cursuri;
+        // Lista din cache este imuabilă; apelantul primește copii ale cursurilor
+        return cursuriStudentCache.getOrLoad(studentId, key -> List.copyOf(cursRepository.findByStudentId(key)))
+                .stream()
+                .map(Curs::copie)
+                .collect(Collectors.toList());
     }
     
     // Close database connection
@@ -0,0 +1,283 @@
+package Service;
+
+import Model.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generator de date sintetice pentru reproducerea locală a unui volum de producție și pentru benchmark-uri.
+ * Cu același seed generează exact aceleași date. Toate entitățile sunt scrise prin salvările în lot
+ * (saveAll), iar ID-urile sunt rezervate din alocatorul primit, deci nu se suprapun cu cele existente.
+ *
+ * Orarul cursurilor respectă aceleași reguli ca adăugarea manuală: un profesor sau o sală nu au
+ * două cursuri suprapuse, cât timp există suficienți profesori și săli pentru numărul de cursuri cerut.
+ */
+public class DemoDataGenerator {
+    private static final String[] PRENUME = {
+            "Andrei", "Maria", "Ion", "Elena", "Mihai", "Ana", "George", "Ioana", "Alexandru", "Cristina",
+            "Vlad", "Diana", "Radu", "Laura", "Stefan", "Irina", "Bogdan", "Simona", "Dan", "Roxana"
+    };
+    private static final String[] NUME = {
+            "Popescu", "Ionescu", "Popa", "Dumitru", "Stan", "Stoica", "Gheorghe", "Rusu", "Munteanu", "Matei",
+            "Constantin", "Serban", "Moldovan", "Lazar", "Ciobanu", "Florea", "Dinu", "Georgescu", "Marin", "Tudor"
+    };
+    private static final String[] TITULATURI = {"Prof. Dr.", "Conf. Dr.", "Lect. Dr.", "Asist. Univ."};
+    private static final String[] DOMENII = {
+            "Algebra", "Analiza matematica", "Programare", "Baze de date", "Structuri de date", "Fizica",
+            "Retele de calculatoare", "Sisteme de operare", "Inteligenta artificiala", "Statistica"
+    };
+    private static final List<String> FACILITATI_BASIC = Arrays.asList("Proiector", "Tablă");
+    private static final List<String> FACILITATI_PREMIUM =
+            Arrays.asList("Proiector", "Tablă interactivă", "Computere", "Aer condiționat");
+
+    // Cursurile durează 2 ore și încep la ore fixe, între 08:00 și 18:00
+    private static final int PRIMA_ORA = 8;
+    private static final int ULTIMA_ORA_INCEPUT = 18;
+    private static final Duration DURATA_CURS = Duration.ofHours(2);
+    private static final int INCERCARI_ORAR = 20;
+
+    private final DatabaseService dbService;
+    private final IdSequenceAllocator alocatorId;
+    private final long seed;
+
+    /**
+     * @param dbService Serviciul prin care se salvează datele
+     * @param alocatorId Alocatorul din care se rezervă ID-urile entităților generate
+     * @param seed Seed-ul generatorului de numere aleatoare
+     */
+    public DemoDataGenerator(DatabaseService dbService, IdSequenceAllocator alocatorId, long seed) {
+        this.dbService = dbService;
+        this.alocatorId = alocatorId;
+        this.seed = seed;
+    }
+
+    /**
+     * Generează și salvează un set complet de date.
+     * @param nrStudenti Numărul de studenți
+     * @param nrProfesori Numărul de profesori
+     * @param nrCursuri Numărul de cursuri
+     * @param densitate Numărul mediu de cursuri la care este înscris un student
+     * @param notePerInscriere Numărul de note pentru fiecare înscriere
+     * @return Numărul de entități salvate, pe tipuri
+     */
+    public Rezultat genereaza(int nrStudenti, int nrProfesori, int nrCursuri, double densitate, int notePerInscriere) {
+        if (nrStudenti < 0 || nrProfesori < 1 || nrCursuri < 0 || densitate < 0 || notePerInscriere < 0) {
+            throw new IllegalArgumentException("Parametri invalizi pentru generarea datelor!");
+        }
+        long start = System.nanoTime();
+        Random random = new Random(seed);
+        Rezultat rezultat = new Rezultat();
+
+        // Fiecare sală poate ține cel mult un curs în fiecare interval de 2 ore; păstrăm o rezervă
+        // de 50% pentru ca alegerea aleatoare să găsească ușor un interval liber
+        int nrSali = Math.max(1, (int) Math.ceil(nrCursuri * 1.5 / intervalePeZi()));
+        int nrMaterii = Math.max(1, Math.min(nrCursuri, DOMENII.length * 10));
+
+        List<Sala> sali = genereazaSali(random, nrSali);
+        rezultat.sali = dbService.salaRepository.saveAll(sali).getSavedCount();
+
+        List<Profesor> profesori = genereazaProfesori(random, nrProfesori);
+        rezultat.profesori = dbService.profesorRepository.saveAll(profesori).getSavedCount();
+
+        List<Materie> materii = genereazaMaterii(random, nrMaterii);
+        rezultat.materii = dbService.materieRepository.saveAll(materii).getSavedCount();
+
+        List<Curs> cursuri = genereazaCursuri(random, nrCursuri, materii, profesori, sali);
+        rezultat.cursuri = dbService.cursRepository.saveAll(cursuri).getSavedCount();
+
+        List<Student> studenti = genereazaStudenti(random, nrStudenti);
+        rezultat.studenti = dbService.saveStudents(studenti).getSavedCount();
+
+        if (!cursuri.isEmpty()) {
+            genereazaInscrieriSiNote(random, studenti, cursuri, densitate, notePerInscriere, rezultat);
+        }
+
+        rezultat.durataMs = (System.nanoTime() - start) / 1_000_000;
+        return rezultat;
+    }
+
+    private List<Sala> genereazaSali(Random random, int numar) {
+        List<String> ids = alocatorId.reserveRange("R", numar);
+        List<Sala> sali = new ArrayList<>(numar);
+        for (int i = 0; i < numar; i++) {
+            boolean laborator = random.nextInt(4) == 0;
+            sali.add(new Sala(ids.get(i),
+                    (laborator ? "Laborator " : "Sala ") + (100 + i),
+                    laborator ? 20 + random.nextInt(11) : 30 + random.nextInt(91),
+                    laborator ? FACILITATI_PREMIUM : FACILITATI_BASIC));
+        }
+        return sali;
+    }
+
+    private List<Profesor> genereazaProfesori(Random random, int numar) {
+        List<String> ids = alocatorId.reserveRange("P", numar);
+        List<Profesor> profesori = new ArrayList<>(numar);
+        for (String id : ids) {
+            profesori.add(new Profesor(numeAleator(random), id, TITULATURI[random.nextInt(TITULATURI.length)]));
+        }
+        return profesori;
+    }
+
+    private List<Materie> genereazaMaterii(Random random, int numar) {
+        List<String> coduri = alocatorId.reserveRange("MAT", numar);
+        List<Materie> materii = new ArrayList<>(numar);
+        for (int i = 0; i < numar; i++) {
+            String nume = DOMENII[i % DOMENII.length] + (i < DOMENII.length ? "" : " " + (i / DOMENII.length + 1));
+            materii.add(new Materie(nume, coduri.get(i), 3 + random.nextInt(4)));
+        }
+        return materii;
+    }
+
+    /**
+     * Alege pentru fiecare curs un profesor, o sală și un interval liber pentru amândoi.
+     * Dacă după mai multe încercări nu se găsește un interval liber, cursul este acceptat cu suprapunere.
+     */
+    private List<Curs> genereazaCursuri(Random random, int numar, List<Materie> materii,
+                                        List<Profesor> profesori, List<Sala> sali) {
+        List<String> ids = alocatorId.reserveRange("CRS", numar);
+        IntervalIndex indexProfesori = new IntervalIndex();
+        IntervalIndex indexSali = new IntervalIndex();
+        int intervalePeZi = intervalePeZi();
+
+        List<Curs> cursuri = new ArrayList<>(numar);
+        for (int i = 0; i < numar; i++) {
+            Profesor profesor = null;
+            Sala sala = null;
+            LocalTime oraInceput = null;
+            for (int incercare = 0; incercare < INCERCARI_ORAR; incercare++) {
+                profesor = profesori.get(random.nextInt(profesori.size()));
+                sala = sali.get(random.nextInt(sali.size()));
+                oraInceput = LocalTime.of(PRIMA_ORA + random.nextInt(intervalePeZi) * (int) DURATA_CURS.toHours(), 0);
+                LocalTime oraSfarsit = oraInceput.plus(DURATA_CURS);
+                if (!indexProfesori.overlaps(profesor.getId(), oraInceput, oraSfarsit)
+                        && !indexSali.overlaps(sala.getId(), oraInceput, oraSfarsit)) {
+                    break;
+                }
+            }
+
+            Curs curs = new Curs(ids.get(i), materii.get(i % materii.size()), profesor, sala,
+                    oraInceput, oraInceput.plus(DURATA_CURS));
+            indexProfesori.add(profesor.getId(), curs.getId(), curs.getOraInceput(), curs.getOraSfarsit());
+            indexSali.add(sala.getId(), curs.getId(), curs.getOraInceput(), curs.getOraSfarsit());
+            cursuri.add(curs);
+        }
+        return cursuri;
+    }
+
+    private List<Student> genereazaStudenti(Random random, int numar) {
+        List<String> ids = alocatorId.reserveRange("S", numar);
+        List<Student> studenti = new ArrayList<>(numar);
+        for (String id : ids) {
+            String nume = numeAleator(random);
+            String email = nume.toLowerCase().replace(' ', '.') + "." + id.toLowerCase() + "@student.ro";
+            studenti.add(new Student(nume, id, email, 1 + random.nextInt(4)));
+        }
+        return studenti;
+    }
+
+    /**
+     * Înscrie fiecare student la un număr aleator de cursuri distincte, cu media egală cu densitatea,
+     * și îi atribuie note la fiecare curs. Salvarea se face în loturi, pe măsură ce listele se umplu,
+     * pentru a nu ține în memorie toate înscrierile unui volum mare de date.
+     */
+    private void genereazaInscrieriSiNote(Random random, List<Student> studenti, List<Curs> cursuri,
+                                          double densitate, int notePerInscriere, Rezultat rezultat) {
+        int dimensiuneLot = DatabaseConnectionSingleton.getInstance().getBatchSize() * 10;
+        int maxPerStudent = (int) Math.min(cursuri.size(), Math.ceil(densitate * 2));
+        List<Inscriere> inscrieri = new ArrayList<>();
+        List<Nota> note = new ArrayList<>();
+        BitSet alese = new BitSet(cursuri.size());
+        LocalDate azi = LocalDate.now();
+
+        for (Student student : studenti) {
+            int numar = (int) Math.floor(densitate);
+            if (random.nextDouble() < densitate - numar) {
+                numar++;
+            }
+            numar = Math.min(numar, maxPerStudent);
+
+            alese.clear();
+            while (alese.cardinality() < numar) {
+                int index = random.nextInt(cursuri.size());
+                if (alese.get(index)) {
+                    continue;
+                }
+                alese.set(index);
+                Curs curs = cursuri.get(index);
+                inscrieri.add(new Inscriere(student, curs));
+                for (int n = 0; n < notePerInscriere; n++) {
+                    note.add(new Nota(student, curs, notaAleatoare(random), azi.minusDays(random.nextInt(120))));
+                }
+            }
+
+            if (inscrieri.size() >= dimensiuneLot) {
+                salveazaInscrieriSiNote(inscrieri, note, rezultat);
+            }
+        }
+        salveazaInscrieriSiNote(inscrieri, note, rezultat);
+    }
+
+    private void salveazaInscrieriSiNote(List<Inscriere> inscrieri, List<Nota> note, Rezultat rezultat) {
+        if (!inscrieri.isEmpty()) {
+            rezultat.inscrieri += dbService.saveInscrieri(inscrieri).getSavedCount();
+            inscrieri.clear();
+        }
+        if (!note.isEmpty()) {
+            rezultat.note += dbService.saveNote(note).getSavedCount();
+            note.clear();
+        }
+    }
+
+    private static int intervalePeZi() {
+        return (ULTIMA_ORA_INCEPUT - PRIMA_ORA) / (int) DURATA_CURS.toHours() + 1;
+    }
+
+    /**
+     * Notă între 1 și 10, rotunjită la jumătate de punct, concentrată în jurul lui 7.5.
+     */
+    private static double notaAleatoare(Random random) {
+        double valoare = 7.5 + random.nextGaussian() * 1.5;
+        return Math.max(1, Math.min(10, Math.round(valoare * 2) / 2.0));
+    }
+
+    private static String numeAleator(Random random) {
+        return PRENUME[random.nextInt(PRENUME.length)] + " " + NUME[random.nextInt(NUME.length)];
+    }
+
+    /**
+     * Numărul de entități salvate pentru fiecare tip și durata generării.
+     */
+    public static final class Rezultat {
+        private int studenti;
+        private int profesori;
+        private int materii;
+        private int sali;
+        private int cursuri;
+        private int inscrieri;
+        private int note;
+        private long durataMs;
+
+        public int getStudenti() { return studenti; }
+        public int getProfesori() { return profesori; }
+        public int getMaterii() { return materii; }
+        public int getSali() { return sali; }
+        public int getCursuri() { return cursuri; }
+        public int getInscrieri() { return inscrieri; }
+        public int getNote() { return note; }
+        public long getDurataMs() { return durataMs; }
+
+        @Override
+        public String toString() {
+            return "studenti=" + studenti + ", profesori=" + profesori + ", materii=" + materii +
+                    ", sali=" + sali + ", cursuri=" + cursuri + ", inscrieri=" + inscrieri +
+                    ", note=" + note + " (" + durataMs + " ms)";
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agregate de note ținute în memorie: suma și numărul notelor pentru fiecare student și pentru
+ * fiecare pereche (student, curs), astfel încât mediile se obțin în O(1), fără interogări în baza de date.
+ * Nu păstrează o copie proprie a notelor: sunt derivate din GradeStore, ca observator al lui,
+ * și se reconstruiesc din coloanele depozitului ori de câte ori acesta este reîncărcat.
+ */
+public class GradeAggregates implements GradeStore.Observator {
+    private volatile ConcurrentHashMap<String, StudentAggregate> perStudent = new ConcurrentHashMap<>();
+
+    @Override
+    public void reconstruieste(GradeStore.Coloane c) {
+        ConcurrentHashMap<String, StudentAggregate> nou = new ConcurrentHashMap<>();
+        int[] studenti = c.studenti();
+        int[] cursuri = c.cursuri();
+        double[] valori = c.valori();
+        for (int i = 0; i < c.size(); i++) {
+            nou.computeIfAbsent(c.idStudent(studenti[i]), k -> new StudentAggregate())
+                    .adauga(c.idCurs(cursuri[i]), valori[i], 1);
+        }
+        perStudent = nou;
+    }
+
+    @Override
+    public void randAdaugat(String studentId, int anStudiu, String cursId, int credite, double valoare) {
+        StudentAggregate agregat = perStudent.computeIfAbsent(studentId, k -> new StudentAggregate());
+        synchronized (agregat) {
+            agregat.adauga(cursId, valoare, 1);
+        }
+    }
+
+    @Override
+    public void randModificat(String studentId, int anStudiu, String cursId, int credite,
+                              double valoareVeche, double valoareNoua) {
+        StudentAggregate agregat = perStudent.get(studentId);
+        if (agregat != null) {
+            synchronized (agregat) {
+                agregat.adauga(cursId, valoareNoua - valoareVeche, 0);
+            }
+        }
+    }
+
+    @Override
+    public void randEliminat(String studentId, int anStudiu, String cursId, int credite, double valoare) {
+        StudentAggregate agregat = perStudent.get(studentId);
+        if (agregat == null) {
+            return;
+        }
+        synchronized (agregat) {
+            agregat.adauga(cursId, -valoare, -1);
+            if (agregat.numar <= 0) {
+                perStudent.remove(studentId, agregat);
+            }
+        }
+    }
+
+    /**
+     * @return Media generală a studentului sau 0 dacă nu are note
+     */
+    public double getMedie(String studentId) {
+        StudentAggregate agregat = perStudent.get(studentId);
+        if (agregat == null) {
+            return 0.0;
+        }
+        synchronized (agregat) {
+            return agregat.numar > 0 ? agregat.suma / agregat.numar : 0.0;
+        }
+    }
+
+    /**
+     * @return Media studentului la curs sau 0 dacă nu are note la acel curs
+     */
+    public double getMedie(String studentId, String cursId) {
+        StudentAggregate agregat = perStudent.get(studentId);
+        if (agregat == null) {
+            return 0.0;
+        }
+        synchronized (agregat) {
+            Suma curs = agregat.cursuri.get(cursId);
+            return curs != null && curs.numar > 0 ? curs.suma / curs.numar : 0.0;
+        }
+    }
+
+    /**
+     * @return Numărul de note ale studentului
+     */
+    public int getNumarNote(String studentId) {
+        StudentAggregate agregat = perStudent.get(studentId);
+        if (agregat == null) {
+            return 0;
+        }
+        synchronized (agregat) {
+            return agregat.numar;
+        }
+    }
+
+    private static final class StudentAggregate {
+        final Map<String, Suma> cursuri = new HashMap<>();
+        double suma;
+        int numar;
+
+        void adauga(String cursId, double deltaSuma, int deltaNumar) {
+            Suma curs = cursuri.computeIfAbsent(cursId, k -> new Suma());
+            curs.suma += deltaSuma;
+            curs.numar += deltaNumar;
+            suma += deltaSuma;
+            numar += deltaNumar;
+            if (curs.numar <= 0) {
+                // Eliminăm și eventualele erori de rotunjire rămase
+                cursuri.remove(cursId);
+                suma -= curs.suma;
+                numar -= curs.numar;
+            }
+        }
+    }
+
+    private static final class Suma {
+        double suma;
+        int numar;
+    }
+}
@@ -0,0 +1,223 @@
+package Service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Statistici ale distribuției notelor (histogramă, medie, mediană, percentilele 10 și 90,
+ * rata de promovare) grupate pe curs, materie, profesor sau an de studiu.
+ *
+ * Pentru o dimensiune, toate grupurile sunt calculate într-o singură parcurgere a coloanelor
+ * din GradeStore, în paralel pe bucăți când depozitul este mare. Rezultatele sunt păstrate
+ * în cache împreună cu versiunea depozitului și recalculate doar după ce notele s-au schimbat.
+ */
+public class GradeStatistics {
+    public static final double NOTA_PROMOVARE = 5.0;
+
+    // Sub acest număr de note parcurgerea se face pe un singur fir
+    private static final int PRAG_PARALEL = 50_000;
+
+    /**
+     * Criteriul de grupare a notelor.
+     */
+    public enum Dimensiune { CURS, MATERIE, PROFESOR, AN }
+
+    private final GradeStore depozit;
+    private final Map<Dimensiune, Rezultat> cache = Collections.synchronizedMap(new EnumMap<>(Dimensiune.class));
+
+    public GradeStatistics(GradeStore depozit) {
+        this.depozit = depozit;
+    }
+
+    /**
+     * @return Statisticile tuturor grupurilor dimensiunii, după cheie (ID curs, cod materie, ID profesor sau an)
+     */
+    public Map<String, Statistici> getStatistici(Dimensiune dimensiune) {
+        Rezultat rezultat = cache.get(dimensiune);
+        if (rezultat == null || rezultat.versiune != depozit.getVersiune()) {
+            rezultat = depozit.citeste(c -> new Rezultat(c.versiune(), calculeaza(c, dimensiune)));
+            cache.put(dimensiune, rezultat);
+        }
+        return rezultat.statistici;
+    }
+
+    /**
+     * @return Statisticile unui grup sau null dacă grupul nu are note
+     */
+    public Statistici getStatistici(Dimensiune dimensiune, String cheie) {
+        return getStatistici(dimensiune).get(cheie);
+    }
+
+    public void invalideaza() {
+        cache.clear();
+    }
+
+    private static Map<String, Statistici> calculeaza(GradeStore.Coloane c, Dimensiune dimensiune) {
+        // Codul grupului pentru fiecare curs (sau student, la gruparea pe an) și cheile grupurilor
+        Map<String, Integer> coduri = new LinkedHashMap<>();
+        boolean peStudent = dimensiune == Dimensiune.AN;
+        int[] grupe = new int[peStudent ? c.numarStudenti() : c.numarCursuri()];
+        for (int i = 0; i < grupe.length; i++) {
+            String cheie;
+            switch (dimensiune) {
+                case MATERIE: cheie = c.materieCurs(i); break;
+                case PROFESOR: cheie = c.profesorCurs(i); break;
+                case AN: cheie = String.valueOf(c.anStudiu(i)); break;
+                case CURS:
+                default: cheie = c.idCurs(i); break;
+            }
+            grupe[i] = coduri.computeIfAbsent(cheie, k -> coduri.size());
+        }
+        int numarGrupe = coduri.size();
+
+        int size = c.size();
+        int[] randuri = peStudent ? c.studenti() : c.cursuri();
+        double[] valori = c.valori();
+        int parti = size < PRAG_PARALEL ? 1 : ForkJoinPool.getCommonPoolParallelism();
+        Acumulator[] total = IntStream.range(0, parti).parallel()
+                .mapToObj(parte -> {
+                    Acumulator[] partial = new Acumulator[numarGrupe];
+                    int de = (int) ((long) size * parte / parti);
+                    int pana = (int) ((long) size * (parte + 1) / parti);
+                    for (int i = de; i < pana; i++) {
+                        int grup = grupe[randuri[i]];
+                        if (partial[grup] == null) {
+                            partial[grup] = new Acumulator();
+                        }
+                        partial[grup].adauga(valori[i]);
+                    }
+                    return partial;
+                })
+                .reduce(GradeStatistics::combina)
+                .orElseGet(() -> new Acumulator[numarGrupe]);
+
+        Map<String, Statistici> rezultat = new HashMap<>();
+        coduri.forEach((cheie, cod) -> {
+            if (total[cod] != null) {
+                rezultat.put(cheie, total[cod].statistici(cheie));
+            }
+        });
+        return Collections.unmodifiableMap(rezultat);
+    }
+
+    private static Acumulator[] combina(Acumulator[] a, Acumulator[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == null) {
+                a[i] = b[i];
+            } else if (b[i] != null) {
+                a[i].combina(b[i]);
+            }
+        }
+        return a;
+    }
+
+    /**
+     * Sumele, histograma și valorile unui grup, strânse în timpul parcurgerii.
+     */
+    private static final class Acumulator {
+        final int[] histograma = new int[10];
+        double[] valori = new double[16];
+        int numar;
+        int promovati;
+        double suma;
+
+        void adauga(double valoare) {
+            if (numar == valori.length) {
+                valori = Arrays.copyOf(valori, numar * 2);
+            }
+            valori[numar++] = valoare;
+            suma += valoare;
+            if (valoare >= NOTA_PROMOVARE) {
+                promovati++;
+            }
+            histograma[Math.min(9, Math.max(0, (int) valoare - 1))]++;
+        }
+
+        void combina(Acumulator alt) {
+            if (numar + alt.numar > valori.length) {
+                valori = Arrays.copyOf(valori, numar + alt.numar);
+            }
+            System.arraycopy(alt.valori, 0, valori, numar, alt.numar);
+            numar += alt.numar;
+            suma += alt.suma;
+            promovati += alt.promovati;
+            for (int i = 0; i < histograma.length; i++) {
+                histograma[i] += alt.histograma[i];
+            }
+        }
+
+        Statistici statistici(String cheie) {
+            double[] sortate = Arrays.copyOf(valori, numar);
+            Arrays.sort(sortate);
+            return new Statistici(cheie, numar, suma / numar,
+                    percentila(sortate, 0.5), percentila(sortate, 0.1), percentila(sortate, 0.9),
+                    (double) promovati / numar, histograma.clone());
+        }
+
+        /** Percentila cu interpolare liniară între valorile vecine. */
+        private static double percentila(double[] sortate, double p) {
+            double pozitie = p * (sortate.length - 1);
+            int jos = (int) Math.floor(pozitie);
+            int sus = (int) Math.ceil(pozitie);
+            return sortate[jos] + (sortate[sus] - sortate[jos]) * (pozitie - jos);
+        }
+    }
+
+    private static final class Rezultat {
+        final long versiune;
+        final Map<String, Statistici> statistici;
+
+        Rezultat(long versiune, Map<String, Statistici> statistici) {
+            this.versiune = versiune;
+            this.statistici = statistici;
+        }
+    }
+
+    /**
+     * Statisticile notelor unui grup. Histograma are 10 clase: clasa i numără notele
+     * cu partea întreagă i + 1 (ultima clasă conține doar notele de 10).
+     */
+    public static final class Statistici {
+        private final String cheie;
+        private final int numarNote;
+        private final double medie;
+        private final double mediana;
+        private final double p10;
+        private final double p90;
+        private final double rataPromovare;
+        private final int[] histograma;
+
+        Statistici(String cheie, int numarNote, double medie, double mediana, double p10, double p90,
+                   double rataPromovare, int[] histograma) {
+            this.cheie = cheie;
+            this.numarNote = numarNote;
+            this.medie = medie;
+            this.mediana = mediana;
+            this.p10 = p10;
+            this.p90 = p90;
+            this.rataPromovare = rataPromovare;
+            this.histograma = histograma;
+        }
+
+        public String getCheie() { return cheie; }
+        public int getNumarNote() { return numarNote; }
+        public double getMedie() { return medie; }
+        public double getMediana() { return mediana; }
+        public double getP10() { return p10; }
+        public double getP90() { return p90; }
+        public double getRataPromovare() { return rataPromovare; }
+        public int[] getHistograma() { return histograma.clone(); }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d note, medie %.2f, mediană %.2f, p10 %.2f, p90 %.2f, promovare %.0f%%",
+                    cheie, numarNote, medie, mediana, p10, p90, rataPromovare * 100);
+        }
+    }
+}
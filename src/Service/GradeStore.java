@@ -0,0 +1,402 @@
+package Service;
+
+import Model.Curs;
+import Model.Nota;
+import Repository.NotaRepository;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Depozit de note în memorie, pe coloane: pentru fiecare notă se păstrează indexul studentului,
+ * indexul cursului, valoarea și data atribuirii (ca zi din epocă) în tablouri primitive paralele.
+ * Studenții și cursurile sunt codificați prin dicționare, împreună cu anul de studiu, materia,
+ * profesorul și creditele cursului, astfel încât calculele statistice se fac în bucle strânse,
+ * fără obiecte Nota. Fiecare modificare incrementează versiunea depozitului, folosită la
+ * invalidarea rezultatelor calculate pe baza lui.
+ *
+ * Este încărcat din tabela note și ținut sincronizat ca ascultător al scrierilor din NotaRepository.
+ * Ordinea rândurilor nu este păstrată: la ștergere ultimul rând ia locul celui eliminat.
+ * Pentru fiecare student se păstrează și lista rândurilor lui, astfel încât modificarea sau
+ * ștergerea notelor unui student nu parcurge tot depozitul.
+ *
+ * Depozitul este singura copie a notelor din memorie: agregatele și clasamentul sunt derivate
+ * din el, ca observatori care primesc fiecare rând adăugat, modificat sau eliminat.
+ */
+public class GradeStore implements NotaRepository.WriteListener {
+    private static final int CAPACITATE_INITIALA = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Coloane coloane = new Coloane();
+    private final CopyOnWriteArrayList<Observator> observatori = new CopyOnWriteArrayList<>();
+
+    // Dicționarul studenților
+    private final Map<String, Integer> indexStudenti = new HashMap<>();
+    private String[] idStudenti = new String[CAPACITATE_INITIALA];
+    private int[] aniStudenti = new int[CAPACITATE_INITIALA];
+    // Rândurile fiecărui student, în ordine oarecare
+    private int[][] randuriStudenti = new int[CAPACITATE_INITIALA][];
+    private int[] numarRanduriStudenti = new int[CAPACITATE_INITIALA];
+    private int numarStudenti;
+
+    // Dicționarul cursurilor
+    private final Map<String, Integer> indexCursuri = new HashMap<>();
+    private String[] idCursuri = new String[CAPACITATE_INITIALA];
+    private int[] crediteCursuri = new int[CAPACITATE_INITIALA];
+    private String[] materiiCursuri = new String[CAPACITATE_INITIALA];
+    private String[] profesoriCursuri = new String[CAPACITATE_INITIALA];
+    private int numarCursuri;
+
+    // Coloanele notelor
+    private int[] studenti = new int[CAPACITATE_INITIALA];
+    private int[] cursuri = new int[CAPACITATE_INITIALA];
+    private double[] valori = new double[CAPACITATE_INITIALA];
+    private int[] zile = new int[CAPACITATE_INITIALA];
+    private int size;
+    private volatile long versiune;
+
+    /**
+     * Înregistrează o structură derivată din note. Observatorul este reconstruit imediat
+     * din conținutul curent și apoi primește fiecare modificare a depozitului.
+     */
+    public void adaugaObservator(Observator observator) {
+        lock.writeLock().lock();
+        try {
+            observatori.add(observator);
+            observator.reconstruieste(coloane);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Golește depozitul și îl reîncarcă din tabela note.
+     */
+    public void load(DatabaseService dbService) {
+        lock.writeLock().lock();
+        try {
+            golesteFaraLock();
+            dbService.forEachGradeRow((studentId, cursId, valoare, data, anStudiu, materieCod, profesorId, credite) ->
+                    adaugaRand(studentId, anStudiu, cursId, materieCod, profesorId, credite, valoare, data));
+            versiune++;
+            observatori.forEach(observator -> observator.reconstruieste(coloane));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            golesteFaraLock();
+            versiune++;
+            observatori.forEach(observator -> observator.reconstruieste(coloane));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Execută un calcul direct pe coloane, sub blocarea de citire.
+     * Tablourile nu trebuie modificate și nici păstrate după întoarcerea din funcție.
+     */
+    public <R> R citeste(Function<Coloane, R> calcul) {
+        lock.readLock().lock();
+        try {
+            return calcul.apply(coloane);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Versiunea curentă; se schimbă la fiecare modificare a notelor din depozit
+     */
+    public long getVersiune() {
+        return versiune;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Media notelor de la curs sau 0 dacă nu există note
+     */
+    public double getMedieCurs(String cursId) {
+        return citeste(c -> {
+            int curs = c.indexCurs(cursId);
+            if (curs < 0) {
+                return 0.0;
+            }
+            double suma = 0;
+            int numar = 0;
+            int[] coloanaCursuri = c.cursuri();
+            double[] coloanaValori = c.valori();
+            for (int i = 0; i < c.size(); i++) {
+                if (coloanaCursuri[i] == curs) {
+                    suma += coloanaValori[i];
+                    numar++;
+                }
+            }
+            return numar > 0 ? suma / numar : 0.0;
+        });
+    }
+
+    @Override
+    public void onInsert(Nota nota) {
+        lock.writeLock().lock();
+        try {
+            Curs curs = nota.getCurs();
+            int rand = adaugaRand(nota.getStudent().getId(), nota.getStudent().getAnStudiu(),
+                    curs.getId(), curs.getMaterie().getCod(), curs.getProfesor().getId(), curs.getMaterie().getCredite(),
+                    nota.getValoare(), nota.getDataAtribuire());
+            versiune++;
+            for (Observator observator : observatori) {
+                observator.randAdaugat(idStudenti[studenti[rand]], aniStudenti[studenti[rand]],
+                        idCursuri[cursuri[rand]], crediteCursuri[cursuri[rand]], valori[rand]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onUpdate(String studentId, String cursId, double valoareNoua) {
+        lock.writeLock().lock();
+        try {
+            Integer student = indexStudenti.get(studentId);
+            Integer curs = indexCursuri.get(cursId);
+            if (student == null || curs == null) {
+                return;
+            }
+            int[] randuri = randuriStudenti[student];
+            for (int j = 0; j < numarRanduriStudenti[student]; j++) {
+                int rand = randuri[j];
+                if (cursuri[rand] == curs && valori[rand] != valoareNoua) {
+                    double valoareVeche = valori[rand];
+                    valori[rand] = valoareNoua;
+                    for (Observator observator : observatori) {
+                        observator.randModificat(studentId, aniStudenti[student], cursId, crediteCursuri[curs],
+                                valoareVeche, valoareNoua);
+                    }
+                }
+            }
+            versiune++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onDelete(String studentId, String cursId, Double valoare) {
+        lock.writeLock().lock();
+        try {
+            int student = studentId == null ? -1 : indexStudenti.getOrDefault(studentId, -2);
+            int curs = cursId == null ? -1 : indexCursuri.getOrDefault(cursId, -2);
+            if (student == -2 || curs == -2) {
+                return;
+            }
+            if (student >= 0) {
+                // Parcurgem invers: eliminarea mută în poziția curentă ultimul rând al studentului, deja verificat
+                for (int j = numarRanduriStudenti[student] - 1; j >= 0; j--) {
+                    int rand = randuriStudenti[student][j];
+                    if ((curs < 0 || cursuri[rand] == curs) && (valoare == null || valori[rand] == valoare)) {
+                        eliminaRand(rand);
+                    }
+                }
+            } else {
+                // Ștergerea unui curs este rară, așa că parcurgem tot depozitul
+                int i = 0;
+                while (i < size) {
+                    if ((curs < 0 || cursuri[i] == curs) && (valoare == null || valori[i] == valoare)) {
+                        eliminaRand(i);
+                    } else {
+                        i++;
+                    }
+                }
+            }
+            versiune++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int adaugaRand(String studentId, int anStudiu, String cursId, String materieCod, String profesorId,
+                            int credite, double valoare, LocalDate data) {
+        if (size == studenti.length) {
+            int capacitate = size * 2;
+            studenti = Arrays.copyOf(studenti, capacitate);
+            cursuri = Arrays.copyOf(cursuri, capacitate);
+            valori = Arrays.copyOf(valori, capacitate);
+            zile = Arrays.copyOf(zile, capacitate);
+        }
+        int student = codificaStudent(studentId, anStudiu);
+        int curs = codificaCurs(cursId, materieCod, profesorId, credite);
+        studenti[size] = student;
+        cursuri[size] = curs;
+        valori[size] = valoare;
+        zile[size] = (int) data.toEpochDay();
+        adaugaLaStudent(student, size);
+        return size++;
+    }
+
+    private void eliminaRand(int rand) {
+        int student = studenti[rand];
+        int curs = cursuri[rand];
+        for (Observator observator : observatori) {
+            observator.randEliminat(idStudenti[student], aniStudenti[student], idCursuri[curs], crediteCursuri[curs],
+                    valori[rand]);
+        }
+        inlocuiesteLaStudent(student, rand, -1);
+        size--;
+        if (rand != size) {
+            inlocuiesteLaStudent(studenti[size], size, rand);
+            studenti[rand] = studenti[size];
+            cursuri[rand] = cursuri[size];
+            valori[rand] = valori[size];
+            zile[rand] = zile[size];
+        }
+    }
+
+    private void adaugaLaStudent(int student, int rand) {
+        int[] randuri = randuriStudenti[student];
+        int numar = numarRanduriStudenti[student];
+        if (randuri == null) {
+            randuri = randuriStudenti[student] = new int[4];
+        } else if (numar == randuri.length) {
+            randuri = randuriStudenti[student] = Arrays.copyOf(randuri, numar * 2);
+        }
+        randuri[numar] = rand;
+        numarRanduriStudenti[student] = numar + 1;
+    }
+
+    /**
+     * Înlocuiește rândul vechi din lista studentului cu cel nou, sau îl scoate dacă noul rând este -1.
+     */
+    private void inlocuiesteLaStudent(int student, int vechi, int nou) {
+        int[] randuri = randuriStudenti[student];
+        int numar = numarRanduriStudenti[student];
+        for (int j = 0; j < numar; j++) {
+            if (randuri[j] == vechi) {
+                if (nou >= 0) {
+                    randuri[j] = nou;
+                } else {
+                    randuri[j] = randuri[numar - 1];
+                    numarRanduriStudenti[student] = numar - 1;
+                }
+                return;
+            }
+        }
+    }
+
+    private int codificaStudent(String studentId, int anStudiu) {
+        Integer cod = indexStudenti.get(studentId);
+        if (cod == null) {
+            if (numarStudenti == idStudenti.length) {
+                idStudenti = Arrays.copyOf(idStudenti, numarStudenti * 2);
+                aniStudenti = Arrays.copyOf(aniStudenti, numarStudenti * 2);
+                randuriStudenti = Arrays.copyOf(randuriStudenti, numarStudenti * 2);
+                numarRanduriStudenti = Arrays.copyOf(numarRanduriStudenti, numarStudenti * 2);
+            }
+            cod = numarStudenti++;
+            idStudenti[cod] = studentId;
+            numarRanduriStudenti[cod] = 0;
+            indexStudenti.put(studentId, cod);
+        }
+        aniStudenti[cod] = anStudiu;
+        return cod;
+    }
+
+    private int codificaCurs(String cursId, String materieCod, String profesorId, int credite) {
+        Integer cod = indexCursuri.get(cursId);
+        if (cod == null) {
+            if (numarCursuri == idCursuri.length) {
+                idCursuri = Arrays.copyOf(idCursuri, numarCursuri * 2);
+                crediteCursuri = Arrays.copyOf(crediteCursuri, numarCursuri * 2);
+                materiiCursuri = Arrays.copyOf(materiiCursuri, numarCursuri * 2);
+                profesoriCursuri = Arrays.copyOf(profesoriCursuri, numarCursuri * 2);
+            }
+            cod = numarCursuri++;
+            idCursuri[cod] = cursId;
+            indexCursuri.put(cursId, cod);
+        }
+        crediteCursuri[cod] = credite;
+        materiiCursuri[cod] = materieCod;
+        profesoriCursuri[cod] = profesorId;
+        return cod;
+    }
+
+    private void golesteFaraLock() {
+        Arrays.fill(numarRanduriStudenti, 0, numarStudenti, 0);
+        indexStudenti.clear();
+        indexCursuri.clear();
+        numarStudenti = 0;
+        numarCursuri = 0;
+        size = 0;
+    }
+
+    /**
+     * O structură derivată din note, ținută la zi de depozit. Toate metodele sunt apelate
+     * sub blocarea de scriere a depozitului, deci observatorul nu poate rămâne în urma lui.
+     */
+    public interface Observator {
+        /**
+         * Depozitul a fost încărcat sau golit: starea derivată se reface din coloane.
+         */
+        void reconstruieste(Coloane coloane);
+
+        void randAdaugat(String studentId, int anStudiu, String cursId, int credite, double valoare);
+
+        void randModificat(String studentId, int anStudiu, String cursId, int credite, double valoareVeche, double valoareNoua);
+
+        void randEliminat(String studentId, int anStudiu, String cursId, int credite, double valoare);
+    }
+
+    /**
+     * Vedere asupra coloanelor depozitului, valabilă doar în interiorul unui apel citeste.
+     * Pentru rândul i: studenti()[i] și cursuri()[i] sunt coduri din dicționare,
+     * valori()[i] este nota, iar zile()[i] data atribuirii ca zi din epocă.
+     */
+    public final class Coloane {
+        private Coloane() {
+        }
+
+        public int size() { return size; }
+        public int[] studenti() { return studenti; }
+        public int[] cursuri() { return cursuri; }
+        public double[] valori() { return valori; }
+        public int[] zile() { return zile; }
+
+        public int numarStudenti() { return numarStudenti; }
+        public String idStudent(int cod) { return idStudenti[cod]; }
+        public int anStudiu(int codStudent) { return aniStudenti[codStudent]; }
+
+        public int numarCursuri() { return numarCursuri; }
+        public String idCurs(int cod) { return idCursuri[cod]; }
+        public int credite(int codCurs) { return crediteCursuri[codCurs]; }
+        public String materieCurs(int codCurs) { return materiiCursuri[codCurs]; }
+        public String profesorCurs(int codCurs) { return profesoriCursuri[codCurs]; }
+        public long versiune() { return versiune; }
+
+        /** @return Codul studentului sau -1 dacă nu are note în depozit */
+        public int indexStudent(String studentId) {
+            return indexStudenti.getOrDefault(studentId, -1);
+        }
+
+        /** @return Codul cursului sau -1 dacă nu are note în depozit */
+        public int indexCurs(String cursId) {
+            return indexCursuri.getOrDefault(cursId, -1);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Alocator de ID-uri de forma prefix + număr (ex: "S12", "CRS5").
+ * Pentru fiecare prefix se ține un contor atomic, inițializat o singură dată
+ * din ID-urile existente la prima cerere pentru acel prefix; apoi fiecare ID nou
+ * se obține în O(1). ID-urile adăugate din alte surse sunt raportate prin observe(),
+ * astfel încât contorul să nu genereze niciodată un ID deja folosit.
+ */
+public class IdSequenceAllocator {
+    private final Map<String, Sequence> sequences = new ConcurrentHashMap<>();
+    private final Supplier<? extends Collection<String>> existingIds;
+
+    /**
+     * @param existingIds Sursa ID-urilor existente, folosită la inițializarea unui prefix nou
+     */
+    public IdSequenceAllocator(Supplier<? extends Collection<String>> existingIds) {
+        this.existingIds = existingIds;
+    }
+
+    /**
+     * Returnează următorul ID disponibil pentru prefixul dat. Sare peste ID-urile înregistrate
+     * din alte surse înainte ca observe() să fi actualizat contorul.
+     */
+    public String next(String prefix) {
+        AtomicInteger sequence = sequence(prefix);
+        Collection<String> existing = existingIds.get();
+        String id;
+        do {
+            id = prefix + sequence.incrementAndGet();
+        } while (existing.contains(id));
+        return id;
+    }
+
+    /**
+     * Rezervă un bloc de ID-uri consecutive pentru un import în lot.
+     * @param prefix Prefixul ID-urilor
+     * @param count Numărul de ID-uri rezervate
+     * @return ID-urile rezervate, în ordine crescătoare
+     */
+    public List<String> reserveRange(String prefix, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Numărul de ID-uri rezervate nu poate fi negativ!");
+        }
+        int last = sequence(prefix).addAndGet(count);
+        List<String> ids = new ArrayList<>(count);
+        for (int number = last - count + 1; number <= last; number++) {
+            ids.add(prefix + number);
+        }
+        return ids;
+    }
+
+    /**
+     * Actualizează contoarele prefixelor deja inițializate cu un ID adăugat din afara alocatorului.
+     */
+    public void observe(String id) {
+        sequences.forEach((prefix, sequence) -> {
+            int number = parseNumber(id, prefix);
+            if (number > 0) {
+                sequence.last.accumulateAndGet(number, Math::max);
+            }
+        });
+    }
+
+    /**
+     * Renunță la toate contoarele; vor fi reinițializate la următoarea cerere.
+     */
+    public void reset() {
+        sequences.clear();
+    }
+
+    /**
+     * Contorul prefixului este publicat în hartă înainte de parcurgerea ID-urilor existente: un ID adăugat
+     * în timpul inițializării este fie văzut de parcurgere, fie raportat contorului prin observe().
+     * Inițializarea se face o singură dată, iar celelalte fire o așteaptă înainte de a aloca.
+     */
+    private AtomicInteger sequence(String prefix) {
+        Sequence sequence = sequences.computeIfAbsent(prefix, p -> new Sequence());
+        if (!sequence.seeded) {
+            synchronized (sequence) {
+                if (!sequence.seeded) {
+                    int max = 0;
+                    for (String id : existingIds.get()) {
+                        max = Math.max(max, parseNumber(id, prefix));
+                    }
+                    sequence.last.accumulateAndGet(max, Math::max);
+                    sequence.seeded = true;
+                }
+            }
+        }
+        return sequence.last;
+    }
+
+    private static final class Sequence {
+        final AtomicInteger last = new AtomicInteger();
+        volatile boolean seeded;
+    }
+
+    /**
+     * @return partea numerică a ID-ului pentru prefixul dat, sau 0 dacă ID-ul nu are forma prefix + număr
+     */
+    private static int parseNumber(String id, String prefix) {
+        if (!id.startsWith(prefix) || id.length() == prefix.length()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(id.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package Service;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index de intervale orare grupate după o cheie (ex: ID profesor sau ID sală).
+ * Pentru fiecare cheie intervalele sunt ținute în tablouri sortate după ora de început,
+ * împreună cu maximul prefix al orelor de sfârșit, astfel încât verificarea suprapunerii
+ * se face cu o singură căutare binară. Tablourile sunt imutabile și înlocuite la fiecare
+ * modificare, deci citirile nu necesită sincronizare.
+ */
+public class IntervalIndex {
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final ConcurrentHashMap<String, Slots> index = new ConcurrentHashMap<>();
+
+    /**
+     * Adaugă (sau înlocuiește) intervalul unui curs pentru cheia dată.
+     */
+    public void add(String key, String cursId, LocalTime start, LocalTime end) {
+        index.compute(key, (k, slots) -> (slots == null ? Slots.EMPTY : slots.without(cursId))
+                .with(cursId, start.toSecondOfDay(), end.toSecondOfDay()));
+    }
+
+    /**
+     * Elimină intervalul unui curs pentru cheia dată.
+     */
+    public void remove(String key, String cursId) {
+        index.computeIfPresent(key, (k, slots) -> {
+            Slots updated = slots.without(cursId);
+            return updated.size() == 0 ? null : updated;
+        });
+    }
+
+    public void clear() {
+        index.clear();
+    }
+
+    /**
+     * Verifică dacă vreun interval al cheii se suprapune cu [start, end).
+     * Complexitate O(log n) în numărul de intervale ale cheii.
+     */
+    public boolean overlaps(String key, LocalTime start, LocalTime end) {
+        Slots slots = index.get(key);
+        return slots != null && slots.overlaps(start.toSecondOfDay(), end.toSecondOfDay());
+    }
+
+    /**
+     * Returnează intervalele libere ale cheii în fereastra [from, to), de cel puțin durata minimă.
+     * @param key Cheia (ex: ID-ul sălii)
+     * @param from Începutul ferestrei
+     * @param to Sfârșitul ferestrei
+     * @param minDurata Durata minimă a unui interval liber
+     * @return Lista intervalelor libere, ordonate crescător
+     */
+    public List<Interval> freeSlots(String key, LocalTime from, LocalTime to, Duration minDurata) {
+        List<Interval> libere = new ArrayList<>();
+        int windowStart = from.toSecondOfDay();
+        int windowEnd = to.toSecondOfDay();
+        long minSeconds = minDurata.getSeconds();
+        Slots slots = index.getOrDefault(key, Slots.EMPTY);
+
+        int cursor = windowStart;
+        for (int i = 0; i < slots.size() && cursor < windowEnd; i++) {
+            int start = slots.starts[i];
+            if (start > cursor) {
+                addFree(libere, cursor, Math.min(start, windowEnd), minSeconds);
+            }
+            cursor = Math.max(cursor, slots.ends[i]);
+        }
+        if (cursor < windowEnd) {
+            addFree(libere, cursor, windowEnd, minSeconds);
+        }
+        return libere;
+    }
+
+    private static void addFree(List<Interval> libere, int start, int end, long minSeconds) {
+        if (end - start >= minSeconds) {
+            libere.add(new Interval(LocalTime.ofSecondOfDay(start), LocalTime.ofSecondOfDay(end)));
+        }
+    }
+
+    /**
+     * Interval orar [start, end).
+     */
+    public static final class Interval {
+        private final LocalTime start;
+        private final LocalTime end;
+
+        public Interval(LocalTime start, LocalTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public LocalTime getStart() { return start; }
+        public LocalTime getEnd() { return end; }
+
+        @Override
+        public String toString() {
+            return start.format(TIME_FORMATTER) + " - " + end.format(TIME_FORMATTER);
+        }
+    }
+
+    /**
+     * Intervalele unei chei, sortate după început; maxEnds[i] = max(ends[0..i]).
+     */
+    private static final class Slots {
+        static final Slots EMPTY = new Slots(new String[0], new int[0], new int[0]);
+
+        final String[] ids;
+        final int[] starts;
+        final int[] ends;
+        final int[] maxEnds;
+
+        Slots(String[] ids, int[] starts, int[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new int[ends.length];
+            int max = Integer.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnds[i] = max;
+            }
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        boolean overlaps(int start, int end) {
+            // Ultimul interval care începe înainte de sfârșitul cererii
+            int last = lowerBound(end) - 1;
+            return last >= 0 && maxEnds[last] > start;
+        }
+
+        /** Primul index cu starts[i] >= value. */
+        private int lowerBound(int value) {
+            int lo = 0;
+            int hi = starts.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < value) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        Slots with(String id, int start, int end) {
+            int n = size();
+            int pos = lowerBound(start);
+            String[] newIds = new String[n + 1];
+            int[] newStarts = new int[n + 1];
+            int[] newEnds = new int[n + 1];
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            newIds[pos] = id;
+            newStarts[pos] = start;
+            newEnds[pos] = end;
+            System.arraycopy(ids, pos, newIds, pos + 1, n - pos);
+            System.arraycopy(starts, pos, newStarts, pos + 1, n - pos);
+            System.arraycopy(ends, pos, newEnds, pos + 1, n - pos);
+            return new Slots(newIds, newStarts, newEnds);
+        }
+
+        Slots without(String id) {
+            int pos = Arrays.asList(ids).indexOf(id);
+            if (pos < 0) {
+                return this;
+            }
+            int n = size();
+            String[] newIds = new String[n - 1];
+            int[] newStarts = new int[n - 1];
+            int[] newEnds = new int[n - 1];
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            System.arraycopy(starts, 0, newStarts, 0, pos);
+            System.arraycopy(ends, 0, newEnds, 0, pos);
+            System.arraycopy(ids, pos + 1, newIds, pos, n - pos - 1);
+            System.arraycopy(starts, pos + 1, newStarts, pos, n - pos - 1);
+            System.arraycopy(ends, pos + 1, newEnds, pos, n - pos - 1);
+            return new Slots(newIds, newStarts, newEnds);
+        }
+    }
+}
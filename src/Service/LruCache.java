@@ -0,0 +1,31 @@
+package Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Map cu dimensiune limitată care elimină intrarea folosită cel mai de demult
+ * atunci când se depășește capacitatea maximă. Nu este sincronizat.
+ */
+public class LruCache<K, V> extends LinkedHashMap<K, V> {
+    private static final long serialVersionUID = 1L;
+
+    private final int capacitateMaxima;
+
+    public LruCache(int capacitateMaxima) {
+        super(16, 0.75f, true);
+        if (capacitateMaxima < 1) {
+            throw new IllegalArgumentException("Capacitatea cache-ului trebuie să fie pozitivă!");
+        }
+        this.capacitateMaxima = capacitateMaxima;
+    }
+
+    public int getCapacitateMaxima() {
+        return capacitateMaxima;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+        return size() > capacitateMaxima;
+    }
+}
@@ -0,0 +1,46 @@
+package Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache dezactivat (cache.enabled=false): nu păstrează nicio valoare, fiecare citire ajunge
+ * la funcția de încărcare. Numără doar miss-urile, pentru ca statisticile să rămână comparabile.
+ */
+public class NoOpCache<K, V> implements Cache<K, V> {
+    private final AtomicLong misses = new AtomicLong();
+
+    @Override
+    public V get(K key) {
+        misses.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public void put(K key, V value) {
+    }
+
+    @Override
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        misses.incrementAndGet();
+        return loader.apply(key);
+    }
+
+    @Override
+    public void invalidate(K key) {
+    }
+
+    @Override
+    public void invalidateAll() {
+    }
+
+    @Override
+    public int size() {
+        return 0;
+    }
+
+    @Override
+    public Stats getStats() {
+        return new Stats(0, misses.get(), 0, 0, 0, 0);
+    }
+}
@@ -0,0 +1,316 @@
+package Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Clasamentul studenților după media ponderată cu creditele materiilor: fiecare notă contează
+ * cu numărul de credite al materiei cursului. Studenții sunt ordonați global și pe ani de studiu
+ * în mulțimi sortate, astfel încât interogările top-N nu mai sortează toți studenții.
+ *
+ * Clasamentul este derivat din GradeStore, ca observator al lui: fiecare notă adăugată, modificată
+ * sau ștearsă aplică doar diferența ei la sumele studentului și îl repoziționează în O(log n).
+ * Reconstruirea calculează sumele pe studenți direct pe coloanele depozitului,
+ * printr-o parcurgere paralelă, pe bucăți.
+ */
+public class RankingEngine implements GradeStore.Observator {
+    // Sub acest număr de note parcurgerea se face pe un singur fir
+    private static final int PRAG_PARALEL = 50_000;
+
+    private static final Comparator<Intrare> ORDINE = Comparator.comparingDouble(Intrare::getMedie).reversed()
+            .thenComparing(Comparator.comparingInt(Intrare::getCredite).reversed())
+            .thenComparing(Intrare::getStudentId);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Acumulatorii fiecărui student, în tablouri indexate după poziția lui în index
+    private final Map<String, Integer> index = new HashMap<>();
+    private String[] ids = new String[0];
+    private int[] ani = new int[0];
+    private double[] sumePonderate = new double[0];
+    private int[] totalCredite = new int[0];
+    private Intrare[] intrari = new Intrare[0];
+    private int numarStudenti;
+
+    private final TreeSet<Intrare> clasament = new TreeSet<>(ORDINE);
+    private final Map<Integer, TreeSet<Intrare>> clasamentePeAn = new HashMap<>();
+
+    /**
+     * Reconstruiește clasamentele din toate notele din depozit.
+     */
+    @Override
+    public void reconstruieste(GradeStore.Coloane c) {
+        int n = c.numarStudenti();
+        Sume sume = calculeazaSume(c);
+
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            ids = new String[n];
+            ani = new int[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = c.idStudent(i);
+                ani[i] = c.anStudiu(i);
+                index.put(ids[i], i);
+            }
+            sumePonderate = sume.sumePonderate;
+            totalCredite = sume.credite;
+            intrari = new Intrare[n];
+            numarStudenti = n;
+            clasament.clear();
+            clasamentePeAn.clear();
+            for (int i = 0; i < n; i++) {
+                puneInClasament(i);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sumele ponderate și creditele pe studenți, calculate pe bucăți în paralel
+     * și combinate la final. Codurile studenților din depozit devin pozițiile din clasament.
+     */
+    private static Sume calculeazaSume(GradeStore.Coloane c) {
+        int size = c.size();
+        int numarStudenti = c.numarStudenti();
+        int[] studenti = c.studenti();
+        int[] cursuri = c.cursuri();
+        double[] valori = c.valori();
+        int parti = size < PRAG_PARALEL ? 1 : ForkJoinPool.getCommonPoolParallelism();
+        return IntStream.range(0, parti).parallel()
+                .mapToObj(parte -> {
+                    Sume partial = new Sume(numarStudenti);
+                    int de = (int) ((long) size * parte / parti);
+                    int pana = (int) ((long) size * (parte + 1) / parti);
+                    for (int i = de; i < pana; i++) {
+                        int student = studenti[i];
+                        int credite = c.credite(cursuri[i]);
+                        partial.sumePonderate[student] += valori[i] * credite;
+                        partial.credite[student] += credite;
+                    }
+                    return partial;
+                })
+                .reduce(Sume::combina)
+                .orElseGet(() -> new Sume(numarStudenti));
+    }
+
+    @Override
+    public void randAdaugat(String studentId, int anStudiu, String cursId, int credite, double valoare) {
+        aplica(studentId, anStudiu, valoare * credite, credite);
+    }
+
+    @Override
+    public void randModificat(String studentId, int anStudiu, String cursId, int credite,
+                              double valoareVeche, double valoareNoua) {
+        aplica(studentId, anStudiu, (valoareNoua - valoareVeche) * credite, 0);
+    }
+
+    @Override
+    public void randEliminat(String studentId, int anStudiu, String cursId, int credite, double valoare) {
+        aplica(studentId, anStudiu, -valoare * credite, -credite);
+    }
+
+    /**
+     * Aplică diferența unei note la sumele studentului și îl repoziționează în clasamente.
+     */
+    private void aplica(String studentId, int anStudiu, double deltaSuma, int deltaCredite) {
+        lock.writeLock().lock();
+        try {
+            int pozitie = pozitieSauNoua(studentId);
+            scoateDinClasament(pozitie);
+            ani[pozitie] = anStudiu;
+            totalCredite[pozitie] += deltaCredite;
+            // Fără note rămase suma trebuie să fie exact 0, nu o eroare de rotunjire acumulată
+            sumePonderate[pozitie] = totalCredite[pozitie] > 0 ? sumePonderate[pozitie] + deltaSuma : 0;
+            puneInClasament(pozitie);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Media ponderată cu creditele sau 0 dacă studentul nu are note
+     */
+    public double getMediePonderata(String studentId) {
+        lock.readLock().lock();
+        try {
+            Integer pozitie = index.get(studentId);
+            return pozitie != null && intrari[pozitie] != null ? intrari[pozitie].getMedie() : 0.0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Primii n studenți din toți anii, în ordinea mediei ponderate
+     */
+    public List<Intrare> getTop(int n) {
+        lock.readLock().lock();
+        try {
+            return primele(clasament, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Primii n studenți din anul de studiu dat, în ordinea mediei ponderate
+     */
+    public List<Intrare> getTopAn(int anStudiu, int n) {
+        lock.readLock().lock();
+        try {
+            TreeSet<Intrare> an = clasamentePeAn.get(anStudiu);
+            return an == null ? Collections.emptyList() : primele(an, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Poziția studentului în clasamentul anului său (numerotată de la 1).
+     * TreeSet nu știe rangul unui element, așa că headSet(...).size() numără unul câte unul
+     * studenții aflați înaintea lui: costul este O(poziție), nu O(log n) ca actualizările.
+     * Pentru afișarea pozițiilor unui an întreg se parcurge getTopAn, nu se apelează
+     * această metodă pentru fiecare student.
+     * @return Poziția sau 0 dacă studentul nu are note
+     */
+    public int getPozitieInAn(String studentId) {
+        lock.readLock().lock();
+        try {
+            Integer pozitie = index.get(studentId);
+            if (pozitie == null || intrari[pozitie] == null) {
+                return 0;
+            }
+            Intrare intrare = intrari[pozitie];
+            return clasamentePeAn.get(intrare.getAnStudiu()).headSet(intrare, false).size() + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Anii de studiu pentru care există studenți clasați, în ordine crescătoare
+     */
+    public List<Integer> getAni() {
+        lock.readLock().lock();
+        try {
+            List<Integer> rezultat = new ArrayList<>(clasamentePeAn.keySet());
+            Collections.sort(rezultat);
+            return rezultat;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Intrare> primele(NavigableSet<Intrare> ordonate, int n) {
+        List<Intrare> rezultat = new ArrayList<>(Math.min(n, ordonate.size()));
+        for (Intrare intrare : ordonate) {
+            if (rezultat.size() >= n) {
+                break;
+            }
+            rezultat.add(intrare);
+        }
+        return rezultat;
+    }
+
+    private int pozitieSauNoua(String studentId) {
+        Integer pozitie = index.get(studentId);
+        if (pozitie != null) {
+            return pozitie;
+        }
+        if (numarStudenti == ids.length) {
+            int capacitate = Math.max(16, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacitate);
+            ani = Arrays.copyOf(ani, capacitate);
+            sumePonderate = Arrays.copyOf(sumePonderate, capacitate);
+            totalCredite = Arrays.copyOf(totalCredite, capacitate);
+            intrari = Arrays.copyOf(intrari, capacitate);
+        }
+        ids[numarStudenti] = studentId;
+        index.put(studentId, numarStudenti);
+        return numarStudenti++;
+    }
+
+    private void scoateDinClasament(int pozitie) {
+        Intrare intrare = intrari[pozitie];
+        if (intrare != null) {
+            clasament.remove(intrare);
+            TreeSet<Intrare> an = clasamentePeAn.get(intrare.getAnStudiu());
+            an.remove(intrare);
+            if (an.isEmpty()) {
+                clasamentePeAn.remove(intrare.getAnStudiu());
+            }
+            intrari[pozitie] = null;
+        }
+    }
+
+    private void puneInClasament(int pozitie) {
+        if (totalCredite[pozitie] <= 0) {
+            return;
+        }
+        Intrare intrare = new Intrare(ids[pozitie], ani[pozitie],
+                sumePonderate[pozitie] / totalCredite[pozitie], totalCredite[pozitie]);
+        intrari[pozitie] = intrare;
+        clasament.add(intrare);
+        clasamentePeAn.computeIfAbsent(intrare.getAnStudiu(), k -> new TreeSet<>(ORDINE)).add(intrare);
+    }
+
+    /**
+     * Poziția unui student în clasament: media ponderată și totalul creditelor notate.
+     */
+    public static final class Intrare {
+        private final String studentId;
+        private final int anStudiu;
+        private final double medie;
+        private final int credite;
+
+        Intrare(String studentId, int anStudiu, double medie, int credite) {
+            this.studentId = studentId;
+            this.anStudiu = anStudiu;
+            this.medie = medie;
+            this.credite = credite;
+        }
+
+        public String getStudentId() { return studentId; }
+        public int getAnStudiu() { return anStudiu; }
+        public double getMedie() { return medie; }
+        public int getCredite() { return credite; }
+
+        @Override
+        public String toString() {
+            return String.format("%s (an %d): %.2f / %d credite", studentId, anStudiu, medie, credite);
+        }
+    }
+
+    /**
+     * Sumele parțiale ale unei bucăți de note.
+     */
+    private static final class Sume {
+        final double[] sumePonderate;
+        final int[] credite;
+
+        Sume(int numarStudenti) {
+            this.sumePonderate = new double[numarStudenti];
+            this.credite = new int[numarStudenti];
+        }
+
+        Sume combina(Sume alta) {
+            for (int i = 0; i < sumePonderate.length; i++) {
+                sumePonderate[i] += alta.sumePonderate[i];
+                credite[i] += alta.credite[i];
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package Service;
+
+import Model.Curs;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orarul fiecărui student păstrat ca hartă de biți: ziua este împărțită în intervale de 15 minute,
+ * iar bitul unui interval este setat dacă studentul are curs atunci. Verificarea unui conflict de orar
+ * este un ȘI pe biți între harta studentului și masca cursului nou, fără acces la baza de date.
+ *
+ * Cursurile care nu încep sau nu se termină la un multiplu de 15 minute ocupă parțial un interval;
+ * pentru studenții care au astfel de cursuri, o intersecție a hărților se confirmă pe orele exacte.
+ */
+public class ScheduleBitmaps {
+    static final int MINUTE_PE_INTERVAL = 15;
+    private static final int INTERVALE = 24 * 60 / MINUTE_PE_INTERVAL;
+    private static final int CUVINTE = (INTERVALE + Long.SIZE - 1) / Long.SIZE;
+
+    private final ConcurrentHashMap<String, Orar> studenti = new ConcurrentHashMap<>();
+
+    /**
+     * Adaugă cursul în orarul studentului (la înscriere).
+     */
+    public void adauga(String studentId, Curs curs) {
+        Orar orar = studenti.computeIfAbsent(studentId, k -> new Orar());
+        synchronized (orar) {
+            orar.adauga(curs.getId(), minut(curs.getOraInceput()), minut(curs.getOraSfarsit()));
+        }
+    }
+
+    /**
+     * Scoate cursul din orarul studentului (la retragere).
+     */
+    public void elimina(String studentId, String cursId) {
+        Orar orar = studenti.get(studentId);
+        if (orar != null) {
+            synchronized (orar) {
+                orar.elimina(cursId);
+            }
+        }
+    }
+
+    public void eliminaStudent(String studentId) {
+        studenti.remove(studentId);
+    }
+
+    /**
+     * Scoate cursul din orarele tuturor studenților (la ștergerea lui).
+     */
+    public void eliminaCurs(String cursId) {
+        studenti.values().forEach(orar -> {
+            synchronized (orar) {
+                orar.elimina(cursId);
+            }
+        });
+    }
+
+    /**
+     * @return true dacă intervalul cursului se suprapune cu alt curs din orarul studentului
+     */
+    public boolean areConflict(String studentId, Curs curs) {
+        Orar orar = studenti.get(studentId);
+        if (orar == null) {
+            return false;
+        }
+        synchronized (orar) {
+            return orar.areConflict(curs.getId(), minut(curs.getOraInceput()), minut(curs.getOraSfarsit()));
+        }
+    }
+
+    /**
+     * @return O copie a cursurilor din orarul studentului, inclusiv cele rezervate de o înscriere încă nesalvată
+     */
+    public Set<String> getCursuri(String studentId) {
+        Orar orar = studenti.get(studentId);
+        if (orar == null) {
+            return new HashSet<>();
+        }
+        synchronized (orar) {
+            return new HashSet<>(orar.cursuri.keySet());
+        }
+    }
+
+    public void clear() {
+        studenti.clear();
+    }
+
+    private static int minut(LocalTime ora) {
+        return ora.getHour() * 60 + ora.getMinute();
+    }
+
+    private static boolean aliniat(int minut) {
+        return minut % MINUTE_PE_INTERVAL == 0;
+    }
+
+    /**
+     * Setează biții intervalelor atinse de [inceput, sfarsit).
+     */
+    private static void marcheaza(long[] biti, int inceput, int sfarsit) {
+        int ultim = Math.min(INTERVALE, (sfarsit + MINUTE_PE_INTERVAL - 1) / MINUTE_PE_INTERVAL);
+        for (int i = inceput / MINUTE_PE_INTERVAL; i < ultim; i++) {
+            biti[i / Long.SIZE] |= 1L << (i % Long.SIZE);
+        }
+    }
+
+    private static final class Orar {
+        final long[] biti = new long[CUVINTE];
+        // Orele exacte ale cursurilor, în minute de la miezul nopții: {început, sfârșit}
+        final Map<String, int[]> cursuri = new HashMap<>();
+        int nealiniate;
+
+        void adauga(String cursId, int inceput, int sfarsit) {
+            if (cursuri.putIfAbsent(cursId, new int[] {inceput, sfarsit}) == null) {
+                marcheaza(biti, inceput, sfarsit);
+                if (!aliniat(inceput) || !aliniat(sfarsit)) {
+                    nealiniate++;
+                }
+            }
+        }
+
+        void elimina(String cursId) {
+            if (cursuri.remove(cursId) == null) {
+                return;
+            }
+            // Două cursuri pot împărți un interval ocupat parțial, deci harta se reface din cursurile rămase
+            Arrays.fill(biti, 0L);
+            nealiniate = 0;
+            for (int[] interval : cursuri.values()) {
+                marcheaza(biti, interval[0], interval[1]);
+                if (!aliniat(interval[0]) || !aliniat(interval[1])) {
+                    nealiniate++;
+                }
+            }
+        }
+
+        boolean areConflict(String cursId, int inceput, int sfarsit) {
+            long[] masca = new long[CUVINTE];
+            marcheaza(masca, inceput, sfarsit);
+            boolean intersectie = false;
+            for (int i = 0; i < CUVINTE; i++) {
+                if ((biti[i] & masca[i]) != 0) {
+                    intersectie = true;
+                    break;
+                }
+            }
+            if (!intersectie) {
+                return false;
+            }
+            if (nealiniate == 0 && aliniat(inceput) && aliniat(sfarsit) && !cursuri.containsKey(cursId)) {
+                return true;
+            }
+
+            // Intersecția poate proveni doar din intervale ocupate parțial sau chiar din același curs
+            return cursuri.entrySet().stream()
+                    .anyMatch(curs -> !curs.getKey().equals(cursId)
+                            && curs.getValue()[0] < sfarsit && curs.getValue()[1] > inceput);
+        }
+    }
+}
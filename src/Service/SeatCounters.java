@@ -0,0 +1,88 @@
+package Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contoare atomice ale locurilor ocupate la fiecare curs, limitate de capacitatea sălii.
+ * Un loc se rezervă printr-o buclă compare-and-set, fără blocări, înainte de înscrierea în baza
+ * de date; dacă înscrierea este respinsă locul se eliberează. Astfel cererile pentru un curs
+ * plin sunt refuzate imediat, fără interogări, iar contorul nu poate depăși capacitatea.
+ */
+public class SeatCounters {
+    private final ConcurrentHashMap<String, Locuri> cursuri = new ConcurrentHashMap<>();
+
+    /**
+     * Înregistrează (sau reinițializează) contorul unui curs.
+     * @param cursId ID-ul cursului
+     * @param capacitate Capacitatea sălii cursului
+     * @param ocupate Numărul de înscrieri existente
+     */
+    public void inregistreaza(String cursId, int capacitate, int ocupate) {
+        cursuri.put(cursId, new Locuri(capacitate, ocupate));
+    }
+
+    /**
+     * Ocupă un loc la curs, dacă mai există locuri libere.
+     * @return true dacă locul a fost rezervat, false dacă cursul este plin sau necunoscut
+     */
+    public boolean rezerva(String cursId) {
+        Locuri locuri = cursuri.get(cursId);
+        if (locuri == null) {
+            return false;
+        }
+        while (true) {
+            int ocupate = locuri.ocupate.get();
+            if (ocupate >= locuri.capacitate) {
+                return false;
+            }
+            if (locuri.ocupate.compareAndSet(ocupate, ocupate + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Eliberează un loc (înscriere respinsă sau anulată).
+     */
+    public void elibereaza(String cursId) {
+        Locuri locuri = cursuri.get(cursId);
+        if (locuri != null) {
+            locuri.ocupate.updateAndGet(ocupate -> Math.max(0, ocupate - 1));
+        }
+    }
+
+    public void elimina(String cursId) {
+        cursuri.remove(cursId);
+    }
+
+    /**
+     * @return Numărul de locuri libere sau 0 dacă cursul nu este cunoscut
+     */
+    public int getLibere(String cursId) {
+        Locuri locuri = cursuri.get(cursId);
+        return locuri == null ? 0 : Math.max(0, locuri.capacitate - locuri.ocupate.get());
+    }
+
+    /**
+     * @return Numărul de locuri ocupate sau 0 dacă cursul nu este cunoscut
+     */
+    public int getOcupate(String cursId) {
+        Locuri locuri = cursuri.get(cursId);
+        return locuri == null ? 0 : locuri.ocupate.get();
+    }
+
+    public void clear() {
+        cursuri.clear();
+    }
+
+    private static final class Locuri {
+        final int capacitate;
+        final AtomicInteger ocupate;
+
+        Locuri(int capacitate, int ocupate) {
+            this.capacitate = capacitate;
+            this.ocupate = new AtomicInteger(ocupate);
+        }
+    }
+}
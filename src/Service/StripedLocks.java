@@ -0,0 +1,133 @@
+package Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Blocări pe benzi (lock striping) pentru operațiile compuse pe entități: fiecare cheie
+ * (ID de student, curs, profesor, sală) este asociată uneia dintre cele N blocări, astfel încât
+ * operațiile pe entități diferite se execută de regulă în paralel, iar cele pe aceeași
+ * entitate sunt serializate, fără a ține câte un obiect de blocare pentru fiecare entitate.
+ *
+ * O operație care are nevoie de mai multe chei le blochează pe toate deodată, în ordinea
+ * indexului benzii, deci două operații nu se pot bloca reciproc. O operație care ține deja
+ * blocări nu trebuie să ceară benzi noi în interiorul ei; dacă setul de chei depinde de starea
+ * protejată chiar de ele, se folosește calculeazaCuChei.
+ */
+public class StripedLocks {
+    private final ReentrantLock[] benzi;
+    private final int masca;
+
+    /**
+     * @param numarBenzi Numărul minim de benzi; se rotunjește la o putere a lui 2
+     */
+    public StripedLocks(int numarBenzi) {
+        int n = Integer.highestOneBit(Math.max(1, numarBenzi - 1)) << 1;
+        this.benzi = new ReentrantLock[n];
+        this.masca = n - 1;
+        for (int i = 0; i < n; i++) {
+            benzi[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Execută operația ținând blocările tuturor cheilor date.
+     */
+    public void executa(Runnable operatie, String... chei) {
+        calculeaza(() -> {
+            operatie.run();
+            return null;
+        }, chei);
+    }
+
+    /**
+     * Execută operația ținând blocările tuturor cheilor date și întoarce rezultatul ei.
+     */
+    public <T> T calculeaza(Supplier<T> operatie, String... chei) {
+        int[] indici = indici(chei);
+        blocheaza(indici);
+        try {
+            return operatie.get();
+        } finally {
+            deblocheaza(indici);
+        }
+    }
+
+    /**
+     * Execută operația ținând blocările unor chei care depind de starea protejată chiar de ele
+     * (ex: cursurile unui student sau studentul care urmează pe o listă de așteptare). Cheile se
+     * calculează înainte de blocare și din nou după; dacă între timp a apărut o cheie nouă, toate
+     * blocările se eliberează și se reia cu toate cheile văzute, obținute tot deodată, în ordine.
+     * Un apel imbricat pe aceleași chei nu mai așteaptă, deoarece blocările sunt reentrante.
+     */
+    public <T> T calculeazaCuChei(Supplier<? extends Collection<String>> chei, Supplier<T> operatie) {
+        Set<String> blocate = new LinkedHashSet<>(chei.get());
+        while (true) {
+            int[] indici = indici(blocate.toArray(new String[0]));
+            blocheaza(indici);
+            try {
+                Collection<String> actuale = chei.get();
+                if (blocate.containsAll(actuale)) {
+                    return operatie.get();
+                }
+                blocate.addAll(actuale);
+            } finally {
+                deblocheaza(indici);
+            }
+        }
+    }
+
+    /**
+     * Execută o operație în două etape: prima ține blocările tuturor cheilor, a doua doar pe cele ale
+     * cheilor păstrate. Benzile celorlalte chei se eliberează între etape, fără ca vreo bandă să fie cerută
+     * din nou, deci ordinea de blocare este cea a unui singur apel; o bandă comună cu o cheie păstrată
+     * rămâne blocată până la final.
+     */
+    public <T, R> R calculeazaInEtape(Collection<String> cheiEliberate, Collection<String> cheiPastrate,
+                                      Supplier<T> prima, Function<T, R> aDoua) {
+        int[] pastrate = indici(cheiPastrate.toArray(new String[0]));
+        int[] toate = indici(Stream.concat(cheiEliberate.stream(), cheiPastrate.stream()).toArray(String[]::new));
+        int[] eliberate = Arrays.stream(toate).filter(i -> Arrays.binarySearch(pastrate, i) < 0).toArray();
+        blocheaza(toate);
+        boolean eliberat = false;
+        try {
+            T rezultat = prima.get();
+            deblocheaza(eliberate);
+            eliberat = true;
+            return aDoua.apply(rezultat);
+        } finally {
+            deblocheaza(eliberat ? pastrate : toate);
+        }
+    }
+
+    private void blocheaza(int[] indici) {
+        for (int i = 0; i < indici.length; i++) {
+            benzi[indici[i]].lock();
+        }
+    }
+
+    private void deblocheaza(int[] indici) {
+        for (int i = indici.length - 1; i >= 0; i--) {
+            benzi[indici[i]].unlock();
+        }
+    }
+
+    /**
+     * Benzile distincte ale cheilor, în ordine crescătoare.
+     */
+    private int[] indici(String... chei) {
+        int[] indici = new int[chei.length];
+        for (int i = 0; i < chei.length; i++) {
+            int h = chei[i].hashCode();
+            indici[i] = (h ^ (h >>> 16)) & masca;
+        }
+        Arrays.sort(indici);
+        return Arrays.stream(indici).distinct().toArray();
+    }
+}
@@ -5,6 +5,11 @@ import Model.*;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Serviciu pentru gestionarea interfeței utilizator și a interacțiunii cu utilizatorul
@@ -58,38 +63,32 @@ public class UIService {
     }
     
     /**
-     * Afișează toate cursurile din baza de date
+     * Afișează toate cursurile din baza de date, pagină cu pagină, în ordinea ID-urilor
      */
     public void afiseazaToateCursurile() {
-        List<Curs> cursuri = catalogService.getCursuri();
+        int total = afiseazaPaginat(catalogService::getPaginaCursuri, Curs::getId,
+                () -> {
+                    System.out.println("\n=== Lista Cursurilor ===");
+                    System.out.println("──────────────────────────────────────────────────────────────────────────────────────────────────────────");
+                    System.out.printf("%-5s | %-30s | %-20s | %-15s | %-15s | %-10s\n", 
+                            "ID", "Materie", "Profesor", "Sala", "Ora", "Studenți");
+                    System.out.println("──────────────────────────────────────────────────────────────────────────────────────────────────────────");
+                },
+                curs -> System.out.printf("%-5s | %-30s | %-20s | %-15s | %5s - %-5s | %-10d\n", 
+                        curs.getId(),
+                        curs.getMaterie().getNume(), 
+                        curs.getProfesor().getNume(),
+                        curs.getSala().getNume(),
+                        curs.getOraInceput().format(TIME_FORMATTER),
+                        curs.getOraSfarsit().format(TIME_FORMATTER),
+                        curs.getStudentiInscrisi().size()),
+                "──────────────────────────────────────────────────────────────────────────────────────────────────────────");
         
-        if (cursuri.isEmpty()) {
+        if (total == 0) {
             System.out.println("Nu există cursuri înregistrate.");
             return;
         }
-        
-        // Sortăm cursurile după materie și ora de început
-        cursuri.sort(Comparator.comparing((Curs c) -> c.getMaterie().getNume())
-                .thenComparing(Curs::getOraInceput));
-        
-        System.out.println("\n=== Lista Cursurilor ===");
-        System.out.println("──────────────────────────────────────────────────────────────────────────────────────────────────────────");
-        System.out.printf("%-5s | %-30s | %-20s | %-15s | %-15s | %-10s\n", 
-                "ID", "Materie", "Profesor", "Sala", "Ora", "Studenți");
-        System.out.println("──────────────────────────────────────────────────────────────────────────────────────────────────────────");
-        
-        for (Curs curs : cursuri) {
-            System.out.printf("%-5s | %-30s | %-20s | %-15s | %5s - %-5s | %-10d\n", 
-                    curs.getId(),
-                    curs.getMaterie().getNume(), 
-                    curs.getProfesor().getNume(),
-                    curs.getSala().getNume(),
-                    curs.getOraInceput().format(TIME_FORMATTER),
-                    curs.getOraSfarsit().format(TIME_FORMATTER),
-                    curs.getStudentiInscrisi().size());
-        }
-        System.out.println("──────────────────────────────────────────────────────────────────────────────────────────────────────────");
-        System.out.println("Total cursuri: " + cursuri.size());
+        System.out.println("Cursuri afișate: " + total);
     }
     
     /**
@@ -123,6 +122,8 @@ public class UIService {
         System.out.println("Total săli: " + sali.size());
     }
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    // Numărul de rânduri afișate pe o pagină în listele de studenți, profesori și cursuri
+    private static final int DIMENSIUNE_PAGINA = 20;
     private final CatalogService catalogService;
     private final Scanner scanner;
 
@@ -170,7 +171,18 @@ public class UIService {
         System.out.println("23. Șterge sală");
         System.out.println("24. Șterge notă");
         
-        System.out.println("\n25. Ieșire");
+        System.out.println("\n=== Rapoarte ===");
+        System.out.println("25. Clasament studenți (medie ponderată cu creditele)");
+        System.out.println("26. Statistici note (curs, materie, profesor, an)");
+        
+        System.out.println("\n=== Liste de așteptare ===");
+        System.out.println("27. Retrage student de la curs");
+        System.out.println("28. Poziție pe lista de așteptare");
+        
+        System.out.println("\n=== Înscrieri în masă ===");
+        System.out.println("29. Înscrie un an de studiu la cursuri");
+        
+        System.out.println("\n30. Ieșire");
         System.out.print("Alege opțiunea: ");
     }
 
@@ -255,6 +267,21 @@ public class UIService {
                     stergeNota();
                     break;
                 case 25:
+                    afiseazaClasament();
+                    break;
+                case 26:
+                    afiseazaStatisticiNote();
+                    break;
+                case 27:
+                    retrageStudentDeLaCurs();
+                    break;
+                case 28:
+                    afiseazaPozitieListaAsteptare();
+                    break;
+                case 29:
+                    inscriereAnStudiuLaCursuri();
+                    break;
+                case 30:
                     System.out.println("Ieșire...");
                     return false;
                 default:
@@ -433,9 +460,16 @@ public class UIService {
                 throw new IllegalArgumentException("Studentul are deja un curs în acest interval orar!");
             }
             
-            // Verificăm capacitatea sălii
+            // Verificăm capacitatea sălii; dacă este plină, propunem lista de așteptare
             if (!catalogService.areSalaCapacitate(curs)) {
-                throw new IllegalArgumentException("Nu mai este loc în sală!");
+                System.out.println("Nu mai este loc în sală!");
+                System.out.print("Doriți să adăugați studentul pe lista de așteptare? (da/nu): ");
+                String raspuns = scanner.nextLine().trim().toLowerCase();
+                if (raspuns.equals("da")) {
+                    int pozitie = catalogService.inscrieInListaAsteptare(studentId, codCurs);
+                    System.out.println("Studentul a fost adăugat pe lista de așteptare, poziția " + pozitie + ".");
+                }
+                return;
             }
             
             // Înscriem studentul
@@ -865,7 +899,7 @@ public class UIService {
         
         // Dacă există o singură notă, o ștergem direct
         if (note.size() == 1) {
-            if (catalogService.dbService.notaRepository.deleteByStudentAndCursId(studentId, cursId, null) > 0) {
+            if (catalogService.stergeNota(studentId, cursId, null) > 0) {
                 System.out.println("Nota a fost ștearsă cu succes!");
             } else {
                 System.out.println("Eroare la ștergerea notei!");
@@ -878,7 +912,7 @@ public class UIService {
         double valoareNota = scanner.nextDouble();
         scanner.nextLine(); // Curăță buffer
         
-        if (catalogService.dbService.notaRepository.deleteByStudentAndCursId(studentId, cursId, valoareNota) > 0) {
+        if (catalogService.stergeNota(studentId, cursId, valoareNota) > 0) {
             System.out.println("Nota a fost ștearsă cu succes!");
         } else {
             System.out.println("Nu s-a găsit o notă cu valoarea " + valoareNota + " pentru cursul specificat!");
@@ -886,60 +920,265 @@ public class UIService {
     }
     
     /**
-     * Afișează toți studenții din baza de date
+     * Afișează clasamentul studenților după media ponderată cu creditele, general sau pe un an de studiu
      */
-    public void afiseazaTotiStudentii() {
-        List<Student> studenti = catalogService.getStudenti();
-        if (studenti.isEmpty()) {
-            System.out.println("Nu există studenți înregistrați.");
+    private void afiseazaClasament() {
+        System.out.print("An studiu (0 pentru toți anii): ");
+        int anStudiu = scanner.nextInt();
+        System.out.print("Număr de studenți afișați: ");
+        int numar = scanner.nextInt();
+        scanner.nextLine(); // Curăță buffer
+        
+        List<RankingEngine.Intrare> clasament = anStudiu > 0
+                ? catalogService.getClasamentAn(anStudiu, numar)
+                : catalogService.getClasament(numar);
+        if (clasament.isEmpty()) {
+            System.out.println("Nu există studenți cu note pentru acest clasament.");
             return;
         }
         
-        // Sortăm studenții alfabetic după nume
-        studenti.sort(Comparator.comparing(Student::getNume));
+        System.out.println("\n=== Clasament " + (anStudiu > 0 ? "anul " + anStudiu : "general") + " ===");
+        System.out.println("──────────────────────────────────────────────────────────────────────");
+        System.out.printf("%-4s | %-6s | %-25s | %-3s | %-7s | %-7s\n",
+                "Loc", "ID", "Nume", "An", "Medie", "Credite");
+        System.out.println("──────────────────────────────────────────────────────────────────────");
         
-        System.out.println("\n=== Lista Studenților ===");
-        System.out.println("────────────────────────────────────────────────────────────────────");
-        System.out.printf("%-5s | %-30s | %-25s | %-10s\n", "ID", "Nume", "Email", "An Studiu");
-        System.out.println("────────────────────────────────────────────────────────────────────");
+        int loc = 1;
+        for (RankingEngine.Intrare intrare : clasament) {
+            String nume = catalogService.getStudent(intrare.getStudentId()).map(Student::getNume).orElse("-");
+            System.out.printf("%-4d | %-6s | %-25s | %-3d | %-7.2f | %-7d\n",
+                    loc++,
+                    intrare.getStudentId(),
+                    nume,
+                    intrare.getAnStudiu(),
+                    intrare.getMedie(),
+                    intrare.getCredite());
+        }
+        System.out.println("──────────────────────────────────────────────────────────────────────");
+    }
+    
+    /**
+     * Afișează distribuția notelor pentru un curs, o materie, un profesor sau un an de studiu
+     */
+    private void afiseazaStatisticiNote() {
+        System.out.println("Grupare: 1. Curs  2. Materie  3. Profesor  4. An de studiu");
+        System.out.print("Alege gruparea: ");
+        int optiune = scanner.nextInt();
+        scanner.nextLine(); // Curăță buffer
+        if (optiune < 1 || optiune > 4) {
+            System.out.println("Opțiune invalidă!");
+            return;
+        }
+        GradeStatistics.Dimensiune dimensiune = GradeStatistics.Dimensiune.values()[optiune - 1];
+        
+        System.out.print("ID curs / cod materie / ID profesor / an (gol pentru toate): ");
+        String cheie = scanner.nextLine().trim();
         
-        for (Student student : studenti) {
-            System.out.printf("%-5s | %-30s | %-25s | %-10d\n", 
-                    student.getId(),
-                    student.getNume(), 
-                    student.getEmail(),
-                    student.getAnStudiu());
+        List<GradeStatistics.Statistici> statistici = new ArrayList<>();
+        if (cheie.isEmpty()) {
+            statistici.addAll(catalogService.getStatisticiNote(dimensiune).values());
+            statistici.sort(Comparator.comparing(GradeStatistics.Statistici::getCheie));
+        } else {
+            catalogService.getStatisticiNote(dimensiune, cheie).ifPresent(statistici::add);
+        }
+        if (statistici.isEmpty()) {
+            System.out.println("Nu există note pentru această selecție.");
+            return;
+        }
+        
+        System.out.println("\n=== Statistici note ===");
+        System.out.println("────────────────────────────────────────────────────────────────────────────────");
+        System.out.printf("%-8s | %-6s | %-6s | %-7s | %-6s | %-6s | %-9s\n",
+                "Grup", "Note", "Medie", "Mediană", "P10", "P90", "Promovare");
+        System.out.println("────────────────────────────────────────────────────────────────────────────────");
+        for (GradeStatistics.Statistici s : statistici) {
+            System.out.printf("%-8s | %-6d | %-6.2f | %-7.2f | %-6.2f | %-6.2f | %7.1f%%\n",
+                    s.getCheie(), s.getNumarNote(), s.getMedie(), s.getMediana(),
+                    s.getP10(), s.getP90(), s.getRataPromovare() * 100);
+        }
+        System.out.println("────────────────────────────────────────────────────────────────────────────────");
+        
+        // Pentru un singur grup afișăm și histograma
+        if (statistici.size() == 1) {
+            int[] histograma = statistici.get(0).getHistograma();
+            int maxim = Arrays.stream(histograma).max().orElse(1);
+            System.out.println("\nDistribuția notelor:");
+            for (int i = 0; i < histograma.length; i++) {
+                int lungime = histograma[i] == 0 ? 0 : Math.max(1, histograma[i] * 40 / maxim);
+                System.out.printf("%2d | %-40s %d\n", i + 1, "█".repeat(lungime), histograma[i]);
+            }
         }
-        System.out.println("────────────────────────────────────────────────────────────────────");
-        System.out.println("Total studenți: " + studenti.size());
     }
     
     /**
-     * Afișează toți profesorii din baza de date
+     * Înscrie toți studenții unui an de studiu la o listă de cursuri și afișează raportul înscrierii
      */
-    public void afiseazaTotiProfesorii() {
-        Map<String, Profesor> profesoriMap = catalogService.getProfesori();
-        if (profesoriMap.isEmpty()) {
-            System.out.println("Nu există profesori înregistrați.");
+    private void inscriereAnStudiuLaCursuri() {
+        System.out.print("An de studiu: ");
+        int anStudiu = Integer.parseInt(scanner.nextLine().trim());
+        System.out.print("Coduri cursuri (separate prin virgulă): ");
+        List<String> cursIds = Arrays.stream(scanner.nextLine().split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .collect(Collectors.toList());
+        
+        List<String> studentIds;
+        try (Stream<Student> studenti = catalogService.streamStudenti()) {
+            studentIds = studenti
+                    .filter(student -> student.getAnStudiu() == anStudiu)
+                    .map(Student::getId)
+                    .collect(Collectors.toList());
+        }
+        if (studentIds.isEmpty() || cursIds.isEmpty()) {
+            System.out.println("Nu există studenți în anul " + anStudiu + " sau nu a fost dat niciun curs!");
             return;
         }
         
-        // Convertim map-ul în listă și sortăm alfabetic după nume
-        List<Profesor> profesori = new ArrayList<>(profesoriMap.values());
-        profesori.sort(Comparator.comparing(Profesor::getNume));
+        BulkEnrollmentResult rezultat = catalogService.inscriereInMasa(studentIds, cursIds);
         
-        System.out.println("\n=== Lista Profesorilor ===");
-        System.out.println("────────────────────────────────────────────────────────────────────");
-        System.out.printf("%-5s | %-30s | %-25s\n", "ID", "Nume", "Titulatura");
-        System.out.println("────────────────────────────────────────────────────────────────────");
+        System.out.println("\n=== Raport înscriere anul " + anStudiu + " ===");
+        for (BulkEnrollmentResult.Status status : BulkEnrollmentResult.Status.values()) {
+            if (rezultat.getNumar(status) > 0) {
+                System.out.printf("%-20s %d\n", status, rezultat.getNumar(status));
+            }
+        }
+        List<BulkEnrollmentResult.Pereche> respinse = rezultat.getRespinse();
+        if (!respinse.isEmpty()) {
+            System.out.println("\nPerechi respinse:");
+            respinse.forEach(pereche -> System.out.println("  " + pereche));
+        }
+    }
+    
+    /**
+     * Retrage un student de la un curs; locul eliberat trece la primul student de pe lista de așteptare
+     */
+    private void retrageStudentDeLaCurs() {
+        System.out.print("ID student: ");
+        String studentId = scanner.nextLine();
+        System.out.print("Cod curs: ");
+        String codCurs = scanner.nextLine();
+        
+        int inAsteptare = catalogService.getLungimeListaAsteptare(codCurs);
+        if (!catalogService.dezinscriereStudent(studentId, codCurs)) {
+            System.out.println("Studentul nu este înscris la acest curs!");
+            return;
+        }
         
-        for (Profesor profesor : profesori) {
-            System.out.printf("%-5s | %-30s | %-25s\n", 
-                    profesor.getId(),
-                    profesor.getNume(), 
-                    profesor.getTitulatura());
+        System.out.println("Studentul a fost retras de la curs.");
+        if (inAsteptare > catalogService.getLungimeListaAsteptare(codCurs)) {
+            System.out.println("Locul a fost ocupat de primul student de pe lista de așteptare.");
+        }
+    }
+    
+    /**
+     * Afișează poziția unui student pe lista de așteptare a unui curs
+     */
+    private void afiseazaPozitieListaAsteptare() {
+        System.out.print("ID student: ");
+        String studentId = scanner.nextLine();
+        System.out.print("Cod curs: ");
+        String codCurs = scanner.nextLine();
+        
+        int pozitie = catalogService.getPozitieListaAsteptare(studentId, codCurs);
+        if (pozitie == 0) {
+            System.out.println("Studentul nu este pe lista de așteptare a cursului " + codCurs + ".");
+        } else {
+            System.out.println("Poziția " + pozitie + " din " + catalogService.getLungimeListaAsteptare(codCurs)
+                    + " pe lista de așteptare a cursului " + codCurs + ".");
+        }
+    }
+    
+    /**
+     * Afișează toți studenții din baza de date, pagină cu pagină, în ordinea ID-urilor
+     */
+    public void afiseazaTotiStudentii() {
+        int total = afiseazaPaginat(catalogService::getPaginaStudenti, Student::getId,
+                () -> {
+                    System.out.println("\n=== Lista Studenților ===");
+                    System.out.println("────────────────────────────────────────────────────────────────────");
+                    System.out.printf("%-5s | %-30s | %-25s | %-10s\n", "ID", "Nume", "Email", "An Studiu");
+                    System.out.println("────────────────────────────────────────────────────────────────────");
+                },
+                student -> System.out.printf("%-5s | %-30s | %-25s | %-10d\n", 
+                        student.getId(),
+                        student.getNume(), 
+                        student.getEmail(),
+                        student.getAnStudiu()),
+                "────────────────────────────────────────────────────────────────────");
+        
+        if (total == 0) {
+            System.out.println("Nu există studenți înregistrați.");
+            return;
+        }
+        System.out.println("Studenți afișați: " + total);
+    }
+    
+    /**
+     * Afișează toți profesorii din baza de date, pagină cu pagină, în ordinea ID-urilor
+     */
+    public void afiseazaTotiProfesorii() {
+        int total = afiseazaPaginat(catalogService::getPaginaProfesori, Profesor::getId,
+                () -> {
+                    System.out.println("\n=== Lista Profesorilor ===");
+                    System.out.println("────────────────────────────────────────────────────────────────────");
+                    System.out.printf("%-5s | %-30s | %-25s\n", "ID", "Nume", "Titulatura");
+                    System.out.println("────────────────────────────────────────────────────────────────────");
+                },
+                profesor -> System.out.printf("%-5s | %-30s | %-25s\n", 
+                        profesor.getId(),
+                        profesor.getNume(), 
+                        profesor.getTitulatura()),
+                "────────────────────────────────────────────────────────────────────");
+        
+        if (total == 0) {
+            System.out.println("Nu există profesori înregistrați.");
+            return;
+        }
+        System.out.println("Profesori afișați: " + total);
+    }
+    
+    /**
+     * Afișează o listă pagină cu pagină, cu paginare keyset: fiecare pagină începe după ultimul ID
+     * afișat. Se cere câte un element în plus pentru a ști dacă mai urmează o pagină.
+     * @param pagina Furnizorul paginilor (ID-ul de după care începe pagina, dimensiunea maximă)
+     * @param id ID-ul unui element, folosit ca punct de pornire pentru pagina următoare
+     * @param antet Afișează capul de tabel; se apelează doar dacă există cel puțin un element
+     * @param rand Afișează un element
+     * @param separator Linia afișată după fiecare pagină
+     * @return Numărul de elemente afișate
+     */
+    private <T> int afiseazaPaginat(BiFunction<String, Integer, List<T>> pagina, Function<T, String> id,
+                                    Runnable antet, Consumer<T> rand, String separator) {
+        String dupaId = null;
+        int total = 0;
+        int numarPagina = 1;
+        
+        while (true) {
+            List<T> elemente = pagina.apply(dupaId, DIMENSIUNE_PAGINA + 1);
+            boolean urmeaza = elemente.size() > DIMENSIUNE_PAGINA;
+            if (urmeaza) {
+                elemente = elemente.subList(0, DIMENSIUNE_PAGINA);
+            }
+            if (elemente.isEmpty()) {
+                return total;
+            }
+            
+            if (numarPagina == 1) {
+                antet.run();
+            }
+            elemente.forEach(rand);
+            total += elemente.size();
+            System.out.println(separator);
+            
+            if (!urmeaza) {
+                return total;
+            }
+            System.out.print("Pagina " + numarPagina + " - Enter pentru pagina următoare, q pentru oprire: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return total;
+            }
+            dupaId = id.apply(elemente.get(elemente.size() - 1));
+            numarPagina++;
         }
-        System.out.println("────────────────────────────────────────────────────────────────────");
-        System.out.println("Total profesori: " + profesori.size());
     }
 }
\ No newline at end of file
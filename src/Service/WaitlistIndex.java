@@ -0,0 +1,160 @@
+package Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Indexul în memorie al listelor de așteptare, pentru răspunsuri în O(1) la întrebarea
+ * „pe ce poziție este studentul?”. Fiecare curs are o coadă FIFO păstrată într-un tablou cu un
+ * indicator al începutului, iar fiecare student își cunoaște indicele din tablou: poziția este
+ * diferența dintre indicele lui și începutul cozii. Scoaterea primului student doar avansează
+ * începutul; scoaterea unui student din mijlocul cozii (renunțare) renumerotează studenții de după el.
+ */
+public class WaitlistIndex {
+    private final ConcurrentHashMap<String, Coada> cozi = new ConcurrentHashMap<>();
+
+    /**
+     * Adaugă studentul la sfârșitul listei cursului.
+     * @return Poziția studentului pe listă (numerotată de la 1)
+     */
+    public int adauga(String cursId, String studentId) {
+        Coada coada = cozi.computeIfAbsent(cursId, k -> new Coada());
+        synchronized (coada) {
+            return coada.adauga(studentId);
+        }
+    }
+
+    /**
+     * Scoate studentul de pe lista cursului (a primit locul sau a renunțat).
+     * @return true dacă studentul era pe listă
+     */
+    public boolean elimina(String cursId, String studentId) {
+        Coada coada = cozi.get(cursId);
+        if (coada == null) {
+            return false;
+        }
+        synchronized (coada) {
+            return coada.elimina(studentId);
+        }
+    }
+
+    /**
+     * Scoate studentul de pe toate listele (ex: la ștergerea lui).
+     */
+    public void eliminaStudent(String studentId) {
+        cozi.keySet().forEach(cursId -> elimina(cursId, studentId));
+    }
+
+    public void eliminaCurs(String cursId) {
+        cozi.remove(cursId);
+    }
+
+    /**
+     * @return Poziția studentului pe lista cursului (de la 1) sau 0 dacă nu este pe listă
+     */
+    public int getPozitie(String cursId, String studentId) {
+        Coada coada = cozi.get(cursId);
+        if (coada == null) {
+            return 0;
+        }
+        synchronized (coada) {
+            return coada.pozitie(studentId);
+        }
+    }
+
+    /**
+     * @return Numărul de studenți care așteaptă la curs
+     */
+    public int getLungime(String cursId) {
+        Coada coada = cozi.get(cursId);
+        if (coada == null) {
+            return 0;
+        }
+        synchronized (coada) {
+            return coada.lungime();
+        }
+    }
+
+    /**
+     * @return Studenții care așteaptă la curs, în ordinea listei
+     */
+    public List<String> getLista(String cursId) {
+        Coada coada = cozi.get(cursId);
+        if (coada == null) {
+            return Collections.emptyList();
+        }
+        synchronized (coada) {
+            return new ArrayList<>(coada.studenti.subList(coada.inceput, coada.studenti.size()));
+        }
+    }
+
+    /**
+     * Înlocuiește toate listele cu cele citite din baza de date.
+     * @param liste Pentru fiecare curs, studenții în ordinea listei
+     */
+    public void incarca(Map<String, List<String>> liste) {
+        cozi.clear();
+        liste.forEach((cursId, studenti) -> studenti.forEach(studentId -> adauga(cursId, studentId)));
+    }
+
+    public void clear() {
+        cozi.clear();
+    }
+
+    private static final class Coada {
+        final List<String> studenti = new ArrayList<>();
+        final Map<String, Integer> indici = new HashMap<>();
+        int inceput;
+
+        int adauga(String studentId) {
+            Integer existent = indici.get(studentId);
+            if (existent != null) {
+                return existent - inceput + 1;
+            }
+            indici.put(studentId, studenti.size());
+            studenti.add(studentId);
+            return studenti.size() - inceput;
+        }
+
+        boolean elimina(String studentId) {
+            Integer indice = indici.remove(studentId);
+            if (indice == null) {
+                return false;
+            }
+            if (indice == inceput) {
+                studenti.set(inceput++, null);
+                if (inceput > 32 && inceput * 2 > studenti.size()) {
+                    compacteaza();
+                }
+            } else {
+                studenti.remove((int) indice);
+                for (int i = indice; i < studenti.size(); i++) {
+                    indici.put(studenti.get(i), i);
+                }
+            }
+            return true;
+        }
+
+        int pozitie(String studentId) {
+            Integer indice = indici.get(studentId);
+            return indice == null ? 0 : indice - inceput + 1;
+        }
+
+        int lungime() {
+            return studenti.size() - inceput;
+        }
+
+        /** Eliberează pozițiile ocupate de studenții deja scoși din capul cozii. */
+        private void compacteaza() {
+            studenti.subList(0, inceput).clear();
+            inceput = 0;
+            for (int i = 0; i < studenti.size(); i++) {
+                indici.put(studenti.get(i), i);
+            }
+        }
+    }
+}
@@ -53,6 +53,22 @@ CREATE TABLE IF NOT EXISTS inscrieri (
     FOREIGN KEY (curs_id) REFERENCES cursuri(id)
 );
 
+-- Index used when counting the enrollments of a course (capacity checks)
+CREATE INDEX IF NOT EXISTS idx_inscrieri_curs ON inscrieri (curs_id);
+
+-- Waitlist table (FIFO per course, in id order)
+CREATE TABLE IF NOT EXISTS lista_asteptare (
+    id SERIAL PRIMARY KEY,
+    student_id VARCHAR(50) NOT NULL,
+    curs_id VARCHAR(50) NOT NULL,
+    data_adaugare DATE NOT NULL,
+    UNIQUE (student_id, curs_id),
+    FOREIGN KEY (student_id) REFERENCES studenti(id),
+    FOREIGN KEY (curs_id) REFERENCES cursuri(id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_lista_asteptare_curs ON lista_asteptare (curs_id, id);
+
 -- Note table
 CREATE TABLE IF NOT EXISTS note (
     id SERIAL PRIMARY KEY,